@@ -0,0 +1,235 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+import javazoneml.model.Speaker;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of the binary corpus snapshot written by {@link BinaryCorpusWriter}.
+ * <p>
+ * The snapshot is a string dictionary followed by one int column per field. Opening it only
+ * reads the header, presentations and their strings are decoded the first time they are accessed.
+ * Every distinct string is decoded once, and speakers with the same name and biography share one
+ * {@link Speaker}: it is shared between presentations and must not be modified.
+ */
+public class BinaryCorpus extends AbstractList<Presentation> {
+    public static final String RESOURCE = "/data/javazone.corpus";
+
+    static final int MAGIC = 0x4A5A4331; // "JZC1"
+    static final int VERSION = 1;
+
+    static final int TITLE = 0;
+    static final int LEVEL = 1;
+    static final int INTENDED_AUDIENCE = 2;
+    static final int SUMMARY = 3;
+    static final int DESCRIPTION = 4;
+    static final int ROOM = 5;
+    static final int LANGUAGE = 6;
+    static final int FORMAT = 7;
+    static final int STRING_COLUMNS = 8;
+
+    private static final int HEADER_SIZE = 24;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int stringOffsets, stringData;
+    private final int columns, years;
+    private final int keywordOffsets, keywords;
+    private final int speakerOffsets, speakerNames, speakerBios;
+    private final String[] strings;
+    private final AtomicReferenceArray<Presentation> presentations;
+    private final ConcurrentMap<Long, Speaker> sharedSpeakers = new ConcurrentHashMap<>();
+
+    public BinaryCorpus(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a corpus snapshot (version " + VERSION + ")");
+        }
+        int stringCount = buffer.getInt(8);
+        size = buffer.getInt(12);
+        int keywordCount = buffer.getInt(16);
+        int speakerCount = buffer.getInt(20);
+
+        stringOffsets = HEADER_SIZE;
+        stringData = stringOffsets + 4 * (stringCount + 1);
+        columns = stringData + buffer.getInt(stringOffsets + 4 * stringCount);
+        years = columns + 4 * STRING_COLUMNS * size;
+        keywordOffsets = years + 4 * size;
+        keywords = keywordOffsets + 4 * (size + 1);
+        speakerOffsets = keywords + 4 * keywordCount;
+        speakerNames = speakerOffsets + 4 * (size + 1);
+        speakerBios = speakerNames + 4 * speakerCount;
+
+        strings = new String[stringCount];
+        presentations = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Maps the given snapshot file into memory.
+     */
+    public static BinaryCorpus open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new BinaryCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Opens the snapshot on the classpath, mapping it when it is a plain file and reading it
+     * into heap when it is packaged in a jar.
+     *
+     * @return the snapshot, or null when the build has not produced one
+     */
+    public static BinaryCorpus openResource(String resource) throws IOException {
+        URL url = BinaryCorpus.class.getResource(resource);
+        if (url == null) {
+            return null;
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return open(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream input = url.openStream()) {
+            return new BinaryCorpus(ByteBuffer.wrap(IOUtils.toByteArray(input)));
+        }
+    }
+
+    @Override
+    public Presentation get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Presentation presentation = presentations.get(index);
+        if (presentation == null) {
+            presentations.compareAndSet(index, null, decode(index));
+            presentation = presentations.get(index);
+        }
+        return presentation;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getYear(int index) {
+        return buffer.getInt(years + 4 * index);
+    }
+
+    /**
+     * Presentations from the given year, found by scanning the year column only.
+     */
+    public List<Presentation> getByYear(int year) {
+        List<Presentation> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (getYear(i) == year) {
+                result.add(get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param cached keep the decoded presentations for later calls, otherwise every element is
+     *               decoded fresh and can be collected as soon as the consumer is done with it
+     */
+    public Stream<Presentation> stream(boolean cached) {
+        if (cached) {
+            return stream();
+        }
+        return IntStream.range(0, size).mapToObj(index -> {
+            Presentation presentation = presentations.get(index);
+            return presentation != null ? presentation : decode(index);
+        });
+    }
+
+    private Presentation decode(int index) {
+        Presentation presentation = new Presentation();
+        presentation.setTitle(column(TITLE, index));
+        presentation.setLevel(column(LEVEL, index));
+        presentation.setIntendedAudience(column(INTENDED_AUDIENCE, index));
+        presentation.setSummary(column(SUMMARY, index));
+        presentation.setDescription(column(DESCRIPTION, index));
+        presentation.setRoom(column(ROOM, index));
+        presentation.setLanguage(column(LANGUAGE, index));
+        presentation.setFormat(column(FORMAT, index));
+        presentation.setYear(getYear(index));
+
+        int start = buffer.getInt(keywordOffsets + 4 * index);
+        if (start >= 0) {
+            int end = offset(buffer.getInt(keywordOffsets + 4 * (index + 1)));
+            List<String> keyWords = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                keyWords.add(string(buffer.getInt(keywords + 4 * i)));
+            }
+            presentation.setKeyWords(keyWords);
+        }
+
+        start = buffer.getInt(speakerOffsets + 4 * index);
+        if (start >= 0) {
+            int end = offset(buffer.getInt(speakerOffsets + 4 * (index + 1)));
+            List<Speaker> speakers = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                speakers.add(speaker(buffer.getInt(speakerNames + 4 * i), buffer.getInt(speakerBios + 4 * i)));
+            }
+            presentation.setSpeakers(speakers);
+        }
+        return presentation;
+    }
+
+    private Speaker speaker(int name, int biography) {
+        return sharedSpeakers.computeIfAbsent(((long) name << 32) | (biography & 0xffffffffL), key -> {
+            Speaker speaker = new Speaker();
+            speaker.setName(string(name));
+            speaker.setBiography(string(biography));
+            return speaker;
+        });
+    }
+
+    private static int offset(int stored) {
+        return stored < 0 ? -stored - 1 : stored;
+    }
+
+    private String column(int column, int index) {
+        return string(buffer.getInt(columns + 4 * (column * size + index)));
+    }
+
+    private String string(int id) {
+        if (id < 0) {
+            return null;
+        }
+        String value = strings[id];
+        if (value == null) {
+            int start = buffer.getInt(stringOffsets + 4 * id);
+            int end = buffer.getInt(stringOffsets + 4 * (id + 1));
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = buffer.duplicate();
+            view.position(stringData + start);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,144 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+import javazoneml.model.Speaker;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the JSON corpus into the binary snapshot read by {@link BinaryCorpus}.
+ * <p>
+ * Runs as part of the common build (process-classes), but can also be started by hand:
+ * BinaryCorpusWriter [output-file]
+ */
+public class BinaryCorpusWriter {
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args.length > 0 ? args[0] : "target/classes" + BinaryCorpus.RESOURCE);
+        List<Presentation> presentations = new DataProvider(false).getAll();
+        new BinaryCorpusWriter().write(presentations, output);
+        System.out.println(presentations.size() + " presentations written to " + output);
+    }
+
+    public void write(List<Presentation> presentations, Path output) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            write(presentations, out);
+        }
+    }
+
+    public void write(List<Presentation> presentations, OutputStream output) throws IOException {
+        int count = presentations.size();
+        int[][] columns = new int[BinaryCorpus.STRING_COLUMNS][count];
+        int[] years = new int[count];
+        List<Integer> keywordOffsets = new ArrayList<>();
+        List<Integer> keywords = new ArrayList<>();
+        List<Integer> speakerOffsets = new ArrayList<>();
+        List<Integer> speakerNames = new ArrayList<>();
+        List<Integer> speakerBios = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Presentation presentation = presentations.get(i);
+            columns[BinaryCorpus.TITLE][i] = id(presentation.getTitle());
+            columns[BinaryCorpus.LEVEL][i] = id(presentation.getLevel());
+            columns[BinaryCorpus.INTENDED_AUDIENCE][i] = id(presentation.getIntendedAudience());
+            columns[BinaryCorpus.SUMMARY][i] = id(presentation.getSummary());
+            columns[BinaryCorpus.DESCRIPTION][i] = id(presentation.getDescription());
+            columns[BinaryCorpus.ROOM][i] = id(presentation.getRoom());
+            columns[BinaryCorpus.LANGUAGE][i] = id(presentation.getLanguage());
+            columns[BinaryCorpus.FORMAT][i] = id(presentation.getFormat());
+            years[i] = presentation.getYear();
+
+            // missing lists are stored as -(offset + 1), so null and empty survive the round trip
+            if (presentation.getKeyWords() == null) {
+                keywordOffsets.add(-keywords.size() - 1);
+            } else {
+                keywordOffsets.add(keywords.size());
+                presentation.getKeyWords().forEach(keyword -> keywords.add(id(keyword)));
+            }
+
+            if (presentation.getSpeakers() == null) {
+                speakerOffsets.add(-speakerNames.size() - 1);
+            } else {
+                speakerOffsets.add(speakerNames.size());
+                for (Speaker speaker : presentation.getSpeakers()) {
+                    speakerNames.add(id(speaker.getName()));
+                    speakerBios.add(id(speaker.getBiography()));
+                }
+            }
+        }
+        keywordOffsets.add(keywords.size());
+        speakerOffsets.add(speakerNames.size());
+
+        byte[][] encoded = new byte[strings.size()][];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(BinaryCorpus.MAGIC);
+        out.writeInt(BinaryCorpus.VERSION);
+        out.writeInt(encoded.length);
+        out.writeInt(count);
+        out.writeInt(keywords.size());
+        out.writeInt(speakerNames.size());
+
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            out.writeInt(offset);
+            offset += bytes.length;
+        }
+        out.writeInt(offset);
+        for (byte[] bytes : encoded) {
+            out.write(bytes);
+        }
+
+        for (int[] column : columns) {
+            writeInts(out, column);
+        }
+        writeInts(out, years);
+        writeInts(out, keywordOffsets);
+        writeInts(out, keywords);
+        writeInts(out, speakerOffsets);
+        writeInts(out, speakerNames);
+        writeInts(out, speakerBios);
+        out.flush();
+    }
+
+    private int id(String value) {
+        if (value == null) {
+            return -1;
+        }
+        return stringIds.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, List<Integer> values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package javazoneml.tools.data;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Random access to a dump written by {@link ChunkedDumpWriter}. Reading a document only decompresses
+ * the chunk holding it, so trainers can read disjoint document ranges from several threads or sample
+ * documents without decompressing the whole dump.
+ * <p>
+ * Safe for concurrent use, reads go through positional file channel reads.
+ */
+public class ChunkedDumpReader implements Closeable {
+    private final FileChannel data;
+    private final long[] chunkOffsets;
+    private final int[] chunkLengths;
+    private final int[] chunkFirstDocuments;
+    private final int[] documentStarts;
+    private final int[] documentLengths;
+
+    public ChunkedDumpReader(String file) throws IOException {
+        Path path = Paths.get(file);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(ChunkedDumpWriter.indexFile(path))))) {
+            if (in.readInt() != ChunkedDumpWriter.MAGIC || in.readInt() != ChunkedDumpWriter.VERSION) {
+                throw new IOException("Not a chunked dump index (version " + ChunkedDumpWriter.VERSION + ")");
+            }
+            int chunks = in.readInt();
+            int documents = in.readInt();
+            chunkOffsets = new long[chunks];
+            chunkLengths = new int[chunks];
+            chunkFirstDocuments = new int[chunks];
+            for (int i = 0; i < chunks; i++) {
+                chunkOffsets[i] = in.readLong();
+                chunkLengths[i] = in.readInt();
+                chunkFirstDocuments[i] = in.readInt();
+            }
+            documentStarts = new int[documents];
+            documentLengths = new int[documents];
+            for (int i = 0; i < documents; i++) {
+                documentStarts[i] = in.readInt();
+                documentLengths[i] = in.readInt();
+            }
+        }
+        data = FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    public int size() {
+        return documentStarts.length;
+    }
+
+    public String get(int document) throws IOException {
+        return get(document, document + 1).get(0);
+    }
+
+    /**
+     * @param from first document, inclusive
+     * @param to   last document, exclusive
+     */
+    public List<String> get(int from, int to) throws IOException {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException("Documents " + from + " to " + to + ", size " + size());
+        }
+        List<String> documents = new ArrayList<>(to - from);
+        int chunk = -1;
+        byte[] content = null;
+        for (int document = from; document < to; document++) {
+            int documentChunk = chunkOf(document);
+            if (documentChunk != chunk) {
+                chunk = documentChunk;
+                content = readChunk(chunk);
+            }
+            documents.add(new String(content, documentStarts[document], documentLengths[document],
+                    StandardCharsets.UTF_8));
+        }
+        return documents;
+    }
+
+    private int chunkOf(int document) {
+        int position = Arrays.binarySearch(chunkFirstDocuments, document);
+        return position >= 0 ? position : -position - 2;
+    }
+
+    private byte[] readChunk(int chunk) throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(chunkLengths[chunk]);
+        long position = chunkOffsets[chunk];
+        while (compressed.hasRemaining()) {
+            int read = data.read(compressed, position + compressed.position());
+            if (read < 0) {
+                throw new IOException("Chunk " + chunk + " is truncated");
+            }
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed.array()))) {
+            return IOUtils.toByteArray(gzip);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+    }
+}
@@ -0,0 +1,111 @@
+package javazoneml.tools.data;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes documents into gzip-compressed chunks of roughly fixed size, plus a sidecar index giving the
+ * chunk and position of every document, see {@link ChunkedDumpReader}.
+ * <p>
+ * The data file is a sequence of complete gzip members, so it can still be read front to back
+ * with any gzip tool. Like the plain dump, every document is followed by a line break, which is not
+ * part of the document.
+ */
+public class ChunkedDumpWriter implements Closeable {
+    static final int MAGIC = 0x4A5A4458; // "JZDX"
+    static final int VERSION = 1;
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final Path index;
+    private final OutputStream data;
+    private final int chunkSize;
+    private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+    private int chunkDocuments;
+    private long dataOffset;
+
+    private final List<Long> chunkOffsets = new ArrayList<>();
+    private final List<Integer> chunkLengths = new ArrayList<>();
+    private final List<Integer> chunkFirstDocuments = new ArrayList<>();
+    private final List<Integer> documentStarts = new ArrayList<>();
+    private final List<Integer> documentLengths = new ArrayList<>();
+
+    public ChunkedDumpWriter(String output) throws IOException {
+        this(output, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param output    path of the data file, the index is written next to it with an .idx suffix
+     * @param chunkSize uncompressed bytes after which a chunk is closed
+     */
+    public ChunkedDumpWriter(String output, int chunkSize) throws IOException {
+        this.index = indexFile(Paths.get(output));
+        this.data = new BufferedOutputStream(Files.newOutputStream(Paths.get(output)));
+        this.chunkSize = chunkSize;
+    }
+
+    static Path indexFile(Path output) {
+        return output.resolveSibling(output.getFileName() + ".idx");
+    }
+
+    public void write(CharSequence document) throws IOException {
+        if (chunkDocuments++ == 0) {
+            chunkFirstDocuments.add(documentStarts.size());
+        }
+        byte[] bytes = document.toString().getBytes(StandardCharsets.UTF_8);
+        documentStarts.add(chunk.size());
+        documentLengths.add(bytes.length);
+        chunk.write(bytes);
+        chunk.write('\n');
+        if (chunk.size() >= chunkSize) {
+            flushChunk();
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(chunk.size() / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            chunk.writeTo(gzip);
+        }
+        compressed.writeTo(data);
+        chunkOffsets.add(dataOffset);
+        chunkLengths.add(compressed.size());
+        dataOffset += compressed.size();
+        chunk.reset();
+        chunkDocuments = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (chunkDocuments > 0) {
+            flushChunk();
+        }
+        data.close();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(chunkOffsets.size());
+            out.writeInt(documentStarts.size());
+            for (int i = 0; i < chunkOffsets.size(); i++) {
+                out.writeLong(chunkOffsets.get(i));
+                out.writeInt(chunkLengths.get(i));
+                out.writeInt(chunkFirstDocuments.get(i));
+            }
+            for (int i = 0; i < documentStarts.size(); i++) {
+                out.writeInt(documentStarts.get(i));
+                out.writeInt(documentLengths.get(i));
+            }
+        }
+    }
+}
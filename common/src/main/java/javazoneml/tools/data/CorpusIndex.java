@@ -0,0 +1,159 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+import javazoneml.model.Speaker;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Precomputed posting lists over a list of presentations, one bit set per year, language, level,
+ * format, keyword and speaker name. Queries intersect the bit sets instead of scanning the corpus.
+ * <p>
+ * String facets are matched case-insensitively.
+ */
+public class CorpusIndex {
+    private final List<Presentation> presentations;
+    private final Map<Integer, BitSet> years = new HashMap<>();
+    private final Map<String, BitSet> languages = new HashMap<>();
+    private final Map<String, BitSet> levels = new HashMap<>();
+    private final Map<String, BitSet> formats = new HashMap<>();
+    private final Map<String, BitSet> keywords = new HashMap<>();
+    private final Map<String, BitSet> speakers = new HashMap<>();
+
+    public CorpusIndex(List<Presentation> presentations) {
+        this.presentations = presentations;
+        for (int i = 0; i < presentations.size(); i++) {
+            Presentation presentation = presentations.get(i);
+            years.computeIfAbsent(presentation.getYear(), k -> new BitSet()).set(i);
+            add(languages, presentation.getLanguage(), i);
+            add(levels, presentation.getLevel(), i);
+            add(formats, presentation.getFormat(), i);
+            if (presentation.getKeyWords() != null) {
+                for (String keyword : presentation.getKeyWords()) {
+                    add(keywords, keyword, i);
+                }
+            }
+            if (presentation.getSpeakers() != null) {
+                for (Speaker speaker : presentation.getSpeakers()) {
+                    add(speakers, speaker.getName(), i);
+                }
+            }
+        }
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    private static void add(Map<String, BitSet> index, String value, int position) {
+        if (value != null) {
+            index.computeIfAbsent(key(value), k -> new BitSet()).set(position);
+        }
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A conjunction of facet restrictions. Values given to one facet method are OR-ed,
+     * separate calls are AND-ed.
+     */
+    public class Query {
+        private BitSet result;
+
+        private Query() {
+            result = new BitSet();
+            result.set(0, presentations.size());
+        }
+
+        public Query year(int year) {
+            return and(years.get(year));
+        }
+
+        /**
+         * @param from first year, inclusive
+         * @param to   last year, inclusive
+         */
+        public Query years(int from, int to) {
+            BitSet union = new BitSet();
+            years.forEach((year, positions) -> {
+                if (year >= from && year <= to) {
+                    union.or(positions);
+                }
+            });
+            return and(union);
+        }
+
+        public Query language(String... values) {
+            return and(languages, values);
+        }
+
+        public Query level(String... values) {
+            return and(levels, values);
+        }
+
+        public Query format(String... values) {
+            return and(formats, values);
+        }
+
+        public Query keyword(String... values) {
+            return and(keywords, values);
+        }
+
+        public Query speaker(String... names) {
+            return and(speakers, names);
+        }
+
+        public int count() {
+            return result.cardinality();
+        }
+
+        public List<Presentation> list() {
+            return list(Collections.emptyList());
+        }
+
+        /**
+         * @param excludes predicates evaluated on the matching presentations only
+         * @return matching presentations which do not pass any of the given predicates
+         */
+        public List<Presentation> list(List<Predicate<Presentation>> excludes) {
+            Predicate<Presentation> commonFilter = DataFilter.noneOf(excludes);
+            List<Presentation> matches = new ArrayList<>(result.cardinality());
+            for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                Presentation presentation = presentations.get(i);
+                if (commonFilter.test(presentation)) {
+                    matches.add(presentation);
+                }
+            }
+            return matches;
+        }
+
+        private Query and(Map<String, BitSet> index, String... values) {
+            BitSet union = new BitSet();
+            for (String value : values) {
+                BitSet positions = index.get(key(value));
+                if (positions != null) {
+                    union.or(positions);
+                }
+            }
+            return and(union);
+        }
+
+        private Query and(BitSet positions) {
+            if (positions == null) {
+                result.clear();
+            } else {
+                result.and(positions);
+            }
+            return this;
+        }
+    }
+}
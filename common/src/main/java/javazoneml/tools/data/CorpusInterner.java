@@ -0,0 +1,102 @@
+package javazoneml.tools.data;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import javazoneml.model.Presentation;
+import javazoneml.model.Speaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalises the values of parsed presentations, so a loaded corpus holds every distinct value once.
+ * <p>
+ * Low-cardinality fields (level, language, format, room, keywords) share one instance per value,
+ * identical texts are shared while they are in use, and speakers with the same name and biography
+ * become a single {@link Speaker} shared by all their presentations. Shared speakers must therefore
+ * be treated as read-only.
+ * <p>
+ * Safe for use by concurrent loaders.
+ */
+public class CorpusInterner {
+    private final Interner<String> values = Interners.newStrongInterner();
+    private final Interner<String> texts = Interners.newWeakInterner();
+    private final ConcurrentMap<SpeakerKey, Speaker> speakers = new ConcurrentHashMap<>();
+
+    public Presentation intern(Presentation presentation) {
+        presentation.setLevel(value(presentation.getLevel()));
+        presentation.setLanguage(value(presentation.getLanguage()));
+        presentation.setFormat(value(presentation.getFormat()));
+        presentation.setRoom(value(presentation.getRoom()));
+        presentation.setTitle(text(presentation.getTitle()));
+        presentation.setIntendedAudience(text(presentation.getIntendedAudience()));
+        presentation.setSummary(text(presentation.getSummary()));
+        presentation.setDescription(text(presentation.getDescription()));
+
+        if (presentation.getKeyWords() != null) {
+            List<String> keyWords = new ArrayList<>(presentation.getKeyWords().size());
+            presentation.getKeyWords().forEach(keyword -> keyWords.add(value(keyword)));
+            presentation.setKeyWords(keyWords);
+        }
+        if (presentation.getSpeakers() != null) {
+            List<Speaker> shared = new ArrayList<>(presentation.getSpeakers().size());
+            presentation.getSpeakers().forEach(speaker -> shared.add(speaker(speaker)));
+            presentation.setSpeakers(shared);
+        }
+        return presentation;
+    }
+
+    public int getSpeakerCount() {
+        return speakers.size();
+    }
+
+    private Speaker speaker(Speaker speaker) {
+        SpeakerKey key = new SpeakerKey(value(speaker.getName()), text(speaker.getBiography()));
+        return speakers.computeIfAbsent(key, k -> {
+            Speaker canonical = new Speaker();
+            canonical.setName(k.name);
+            canonical.setBiography(k.biography);
+            return canonical;
+        });
+    }
+
+    private String value(String value) {
+        return value == null ? null : values.intern(value);
+    }
+
+    private String text(String text) {
+        return text == null ? null : texts.intern(text);
+    }
+
+    private static final class SpeakerKey {
+        private final String name;
+        private final String biography;
+        private final int hash;
+
+        private SpeakerKey(String name, String biography) {
+            this.name = name;
+            this.biography = biography;
+            this.hash = Objects.hash(name, biography);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SpeakerKey)) {
+                return false;
+            }
+            SpeakerKey other = (SpeakerKey) o;
+            return hash == other.hash && Objects.equals(name, other.name) && Objects.equals(biography, other.biography);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
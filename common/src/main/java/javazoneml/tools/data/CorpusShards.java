@@ -0,0 +1,131 @@
+package javazoneml.tools.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The JSON files making up the corpus, grouped by year.
+ * <p>
+ * A shard is any <code>&lt;name&gt;-&lt;year&gt;[-&lt;part&gt;].json</code> file directly below the
+ * source, e.g. javazone-2015.json or meetup-2016-oslo.json. Discovery only lists file names,
+ * nothing is read until {@link DataProvider} loads a year.
+ * <p>
+ * The source is the directory given by the system property {@value #SOURCE_PROPERTY}, or a classpath
+ * prefix when the property starts with {@value #CLASSPATH}. It defaults to the bundled data.
+ */
+public class CorpusShards {
+    public static final String SOURCE_PROPERTY = "javazoneml.data";
+    public static final String CLASSPATH = "classpath:";
+    public static final String DEFAULT_SOURCE = CLASSPATH + "/data/json/";
+
+    private static final Pattern shardName = Pattern.compile("[^/]*?-(\\d{4})(-[^/]*)?\\.json");
+
+    private final String source;
+    private final Map<Integer, List<URL>> shards = new TreeMap<>();
+
+    public CorpusShards(String source) {
+        this.source = source;
+        try {
+            if (source.startsWith(CLASSPATH)) {
+                discoverClasspath(source.substring(CLASSPATH.length()));
+            } else {
+                discoverDirectory(Paths.get(source));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list corpus shards in " + source, e);
+        }
+        shards.values().forEach(urls -> urls.sort((u1, u2) -> u1.toString().compareTo(u2.toString())));
+    }
+
+    /**
+     * Shards from the configured source.
+     */
+    public static CorpusShards configured() {
+        return new CorpusShards(System.getProperty(SOURCE_PROPERTY, DEFAULT_SOURCE));
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public boolean isDefaultSource() {
+        return DEFAULT_SOURCE.equals(source);
+    }
+
+    public Set<Integer> getYears() {
+        return Collections.unmodifiableSet(shards.keySet());
+    }
+
+    public List<URL> get(int year) {
+        return shards.getOrDefault(year, Collections.emptyList());
+    }
+
+    public List<URL> getAll() {
+        List<URL> all = new ArrayList<>();
+        shards.values().forEach(all::addAll);
+        return all;
+    }
+
+    private void discoverDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                add(file.getFileName().toString(), file.toUri().toURL());
+            }
+        }
+    }
+
+    private void discoverClasspath(String prefix) throws IOException {
+        URL root = getClass().getResource(prefix);
+        if (root == null) {
+            return;
+        }
+        if ("file".equals(root.getProtocol())) {
+            try {
+                discoverDirectory(Paths.get(root.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        } else if ("jar".equals(root.getProtocol())) {
+            JarURLConnection connection = (JarURLConnection) root.openConnection();
+            String directory = connection.getEntryName().endsWith("/")
+                    ? connection.getEntryName() : connection.getEntryName() + "/";
+            JarFile jar = connection.getJarFile();
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(directory) && name.indexOf('/', directory.length()) < 0) {
+                    add(name.substring(directory.length()), getClass().getResource("/" + name));
+                }
+            }
+        }
+    }
+
+    private void add(String fileName, URL url) {
+        Matcher matcher = shardName.matcher(fileName);
+        if (matcher.matches()) {
+            int year = Integer.parseInt(matcher.group(1));
+            shards.computeIfAbsent(year, y -> new ArrayList<>()).add(url);
+        }
+    }
+}
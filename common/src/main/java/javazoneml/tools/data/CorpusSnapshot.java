@@ -0,0 +1,130 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * The corpus shared by every module in the JVM, so it is parsed once per process instead of once
+ * per caller.
+ * <p>
+ * The lists handed out are unmodifiable and shared, callers must not modify the presentations in them.
+ * {@link #getInstance()} reloads the corpus when one of the underlying resource files has changed
+ * since the current snapshot was taken. Looking for changes lists and stats the resources, so it is done
+ * at most every {@value #CHECK_INTERVAL_MILLIS} ms, or right away by {@link #refresh()}.
+ */
+public final class CorpusSnapshot {
+    static final long CHECK_INTERVAL_MILLIS = 10_000;
+
+    private static volatile CorpusSnapshot instance;
+    private static volatile long nextCheck;
+
+    private final DataProvider provider;
+    private final long fingerprint;
+    private volatile CorpusIndex index;
+
+    private CorpusSnapshot(DataProvider provider) {
+        this.provider = provider;
+        this.fingerprint = fingerprint(provider.getSources());
+    }
+
+    public static CorpusSnapshot getInstance() {
+        CorpusSnapshot snapshot = instance;
+        if (snapshot != null && System.currentTimeMillis() < nextCheck) {
+            return snapshot;
+        }
+        synchronized (CorpusSnapshot.class) {
+            snapshot = instance;
+            if (snapshot != null && System.currentTimeMillis() < nextCheck) {
+                return snapshot;
+            }
+            return refresh();
+        }
+    }
+
+    /**
+     * Reloads the corpus now if its resources have changed.
+     *
+     * @return the current snapshot
+     */
+    public static synchronized CorpusSnapshot refresh() {
+        if (instance == null || instance.isStale()) {
+            instance = new CorpusSnapshot(new DataProvider());
+        }
+        nextCheck = System.currentTimeMillis() + CHECK_INTERVAL_MILLIS;
+        return instance;
+    }
+
+    public List<Presentation> getAll() {
+        return provider.getAll();
+    }
+
+    /**
+     * @param excludes list of predicates
+     * @return presentations which do not pass the given filters, in a new list owned by the caller
+     */
+    public List<Presentation> getAll(List<Predicate<Presentation>> excludes) {
+        return provider.getAll(excludes);
+    }
+
+    public List<Presentation> get(int year) {
+        return provider.get(year);
+    }
+
+    /**
+     * Facet index over {@link #getAll()}, built on first use.
+     */
+    public CorpusIndex getIndex() {
+        CorpusIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = new CorpusIndex(getAll());
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public Stream<Presentation> stream(List<Predicate<Presentation>> excludes) {
+        return provider.stream(excludes);
+    }
+
+    /**
+     * @return true when the resources this snapshot was read from have been modified since
+     */
+    public boolean isStale() {
+        return fingerprint != fingerprint(provider.getSources());
+    }
+
+    /**
+     * Combines modification time and size of the resources that are plain files. Resources packaged
+     * in a jar cannot change while the process is running and do not contribute.
+     */
+    private static long fingerprint(List<URL> sources) {
+        long fingerprint = 17;
+        for (URL source : sources) {
+            if (!"file".equals(source.getProtocol())) {
+                continue;
+            }
+            try {
+                Path path = Paths.get(source.toURI());
+                fingerprint = 31 * fingerprint + Files.getLastModifiedTime(path).toMillis();
+                fingerprint = 31 * fingerprint + Files.size(path);
+            } catch (IOException | URISyntaxException e) {
+                fingerprint = 31 * fingerprint - 1;
+            }
+        }
+        return fingerprint;
+    }
+}
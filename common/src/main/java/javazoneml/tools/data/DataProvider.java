@@ -1,30 +1,94 @@
 package javazoneml.tools.data;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import javazoneml.model.Presentation;
-import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DataProvider {
-    private static final String fileNameTemplate = "/data/json/javazone-%d.json";
-    private static final List<Integer> years =
-            Arrays.asList(2003, 2004, 2005, 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015);
-    private List<Presentation> presentations = new ArrayList<>();
+    private final CorpusShards shards;
+    private final boolean snapshotEnabled;
+    private final BinaryCorpus snapshot;
+    private final Executor executor;
+    private final CorpusInterner interner = new CorpusInterner();
+    private final ConcurrentMap<Integer, CompletableFuture<List<Presentation>>> yearCache = new ConcurrentHashMap<>();
+    private volatile List<Presentation> presentations;
+
+    public DataProvider() {
+        this(true);
+    }
+
+    /**
+     * @param useSnapshot read the binary snapshot produced by {@link BinaryCorpusWriter} when it is
+     *                    available, instead of parsing the JSON files. The snapshot only covers the
+     *                    bundled data and is ignored when another shard source is configured, or
+     *                    when one of the JSON files is newer than the snapshot.
+     */
+    public DataProvider(boolean useSnapshot) {
+        this(useSnapshot, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor runs the per-year loads, which are started concurrently
+     */
+    public DataProvider(Executor executor) {
+        this(true, executor);
+    }
+
+    public DataProvider(boolean useSnapshot, Executor executor) {
+        this(CorpusShards.configured(), useSnapshot, executor);
+    }
+
+    public DataProvider(CorpusShards shards, boolean useSnapshot, Executor executor) {
+        this.shards = shards;
+        this.executor = executor;
+        snapshotEnabled = useSnapshot && shards.isDefaultSource();
+        snapshot = snapshotEnabled && !isOutdated(getClass().getResource(BinaryCorpus.RESOURCE), shards.getAll())
+                ? readSnapshot() : null;
+    }
+
+    /**
+     * @return the years with at least one shard, without reading any of them
+     */
+    public Set<Integer> getYears() {
+        return shards.getYears();
+    }
 
     public List<Presentation> getAll() {
-        if(presentations.isEmpty()){
-            years.forEach(year -> presentations.addAll(readFile(year)));
+        if (snapshot != null) {
+            return snapshot;
+        }
+        List<Presentation> all = presentations;
+        if (all == null) {
+            synchronized (this) {
+                all = presentations;
+                if (all == null) {
+                    // start every year before waiting for any of them
+                    List<CompletableFuture<List<Presentation>>> loads = new ArrayList<>();
+                    getYears().forEach(year -> loads.add(load(year)));
+                    List<Presentation> loaded = new ArrayList<>();
+                    loads.forEach(load -> loaded.addAll(load.join()));
+                    all = Collections.unmodifiableList(loaded);
+                    presentations = all;
+                }
+            }
         }
-        return presentations;
+        return all;
     }
 
     /**
@@ -33,28 +97,135 @@ public class DataProvider {
      * @return presentations which do not pass the given filters
      */
     public List<Presentation> getAll(List<Predicate<Presentation>> excludes) {
-        Predicate<Presentation> commonFilter = excludes.stream().reduce(p -> false, Predicate::or).negate();
+        Predicate<Presentation> commonFilter = DataFilter.noneOf(excludes);
         return getAll().stream().filter(commonFilter).collect(Collectors.toList());
     }
 
+    /**
+     * Streams all presentations without materialising the corpus. Each year is parsed
+     * incrementally when the stream reaches it, so the stream must be closed when done.
+     */
+    public Stream<Presentation> stream() {
+        if (snapshot != null) {
+            return snapshot.stream(false);
+        }
+        List<Presentation> loaded = presentations;
+        if (loaded != null) {
+            return loaded.stream();
+        }
+        return getYears().stream().flatMap(this::streamFile);
+    }
+
+    /**
+     * Streams presentations that do not pass any of the given predicates
+     * @param excludes list of predicates
+     */
+    public Stream<Presentation> stream(List<Predicate<Presentation>> excludes) {
+        Predicate<Presentation> commonFilter = DataFilter.noneOf(excludes);
+        return stream().filter(commonFilter);
+    }
+
+    /**
+     * Presentations from the given year. Each year is read once per provider, concurrent callers
+     * wait for the same load.
+     */
     public List<Presentation> get(int year) {
-        if (years.contains(year)) {
-            return readFile(year);
+        if (snapshot != null || getYears().contains(year)) {
+            return load(year).join();
         }
         return new ArrayList<>();
     }
 
+    /**
+     * Presentations from the given range of years. Shards of other years are never read.
+     * @param from first year, inclusive
+     * @param to last year, inclusive
+     */
+    public List<Presentation> get(int from, int to) {
+        List<CompletableFuture<List<Presentation>>> loads = new ArrayList<>();
+        getYears().stream().filter(year -> year >= from && year <= to).forEach(year -> loads.add(load(year)));
+        List<Presentation> result = new ArrayList<>();
+        loads.forEach(load -> result.addAll(load.join()));
+        return result;
+    }
+
+    /**
+     * @return the resources this provider reads from, listing the shard source again so that
+     * added and removed shards show up
+     */
+    List<URL> getSources() {
+        List<URL> sources = new ArrayList<>();
+        URL snapshotResource = snapshotEnabled ? getClass().getResource(BinaryCorpus.RESOURCE) : null;
+        if (snapshotResource != null) {
+            sources.add(snapshotResource);
+        }
+        sources.addAll(new CorpusShards(shards.getSource()).getAll());
+        return sources;
+    }
+
+    /**
+     * @return true when one of the sources is a file modified after <code>snapshot</code>, which is
+     * then missing their changes. Resources packaged in a jar never count as newer.
+     */
+    static boolean isOutdated(URL snapshot, List<URL> sources) {
+        long snapshotModified = lastModified(snapshot);
+        if (snapshotModified < 0) {
+            return false;
+        }
+        for (URL source : sources) {
+            if (lastModified(source) > snapshotModified) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the modification time of a resource that is a plain file, -1 otherwise
+     */
+    static long lastModified(URL resource) {
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return -1;
+        }
+        try {
+            return Files.getLastModifiedTime(Paths.get(resource.toURI())).toMillis();
+        } catch (IOException | URISyntaxException e) {
+            return -1;
+        }
+    }
+
+    private CompletableFuture<List<Presentation>> load(int year) {
+        return yearCache.computeIfAbsent(year, y -> CompletableFuture.supplyAsync(
+                () -> Collections.unmodifiableList(snapshot != null ? snapshot.getByYear(y) : readFile(y)),
+                executor));
+    }
+
+    private BinaryCorpus readSnapshot() {
+        try {
+            return BinaryCorpus.openResource(BinaryCorpus.RESOURCE);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     private List<Presentation> readFile(int year) {
+        try (Stream<Presentation> stream = streamFile(year)) {
+            return stream.map(interner::intern).collect(Collectors.toList());
+        }
+    }
+
+    private Stream<Presentation> streamFile(int year) {
+        return shards.get(year).stream().flatMap(this::streamShard);
+    }
+
+    private Stream<Presentation> streamShard(URL shard) {
         try {
-            String filename = String.format(fileNameTemplate, year);
-            InputStream contentStream = this.getClass().getResourceAsStream(filename);
-            String content = IOUtils.toString(contentStream, StandardCharsets.UTF_8.name());
-            Gson gson = new GsonBuilder().create();
-            return Arrays.asList(gson.fromJson(content, Presentation[].class));
+            return PresentationReader.stream(shard.openStream());
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return new ArrayList<>();
+        return Stream.empty();
     }
 
 }
@@ -1,71 +1,201 @@
 package javazoneml.tools.data;
 
-import edu.stanford.nlp.io.IOUtils;
 import javazoneml.model.Presentation;
 import javazoneml.model.Speaker;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class DumpContent {
+    /**
+     * Writes the text dumps, pass --chunked to write them as compressed chunks with an index instead.
+     */
     public static void main(String[] args) {
-        new DumpContent().dumpContent("src/main/resources/data/javazone-en-talk.txt", false, true, Arrays.asList("en"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-en-bio.txt", true, false, Arrays.asList("en"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-en-all.txt", true, true, Arrays.asList("en"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-no-talk.txt", false, true, Arrays.asList("no"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-no-bio.txt", true, false, Arrays.asList("no"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-no-all.txt", true, true, Arrays.asList("no"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-all-talk.txt", false, true,
-                Arrays.asList("en", "no"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-all-bio.txt", true, false,
-                Arrays.asList("en", "no"));
-        new DumpContent().dumpContent("src/main/resources/data/javazone-all-all.txt", true, true,
-                Arrays.asList("en", "no"));
+        boolean chunked = Arrays.asList(args).contains("--chunked");
+        List<Target> targets = Arrays.asList(
+                new Target("src/main/resources/data/javazone-en-talk.txt", false, true, Arrays.asList("en")),
+                new Target("src/main/resources/data/javazone-en-bio.txt", true, false, Arrays.asList("en")),
+                new Target("src/main/resources/data/javazone-en-all.txt", true, true, Arrays.asList("en")),
+                new Target("src/main/resources/data/javazone-no-talk.txt", false, true, Arrays.asList("no")),
+                new Target("src/main/resources/data/javazone-no-bio.txt", true, false, Arrays.asList("no")),
+                new Target("src/main/resources/data/javazone-no-all.txt", true, true, Arrays.asList("no")),
+                new Target("src/main/resources/data/javazone-all-talk.txt", false, true, Arrays.asList("en", "no")),
+                new Target("src/main/resources/data/javazone-all-bio.txt", true, false, Arrays.asList("en", "no")),
+                new Target("src/main/resources/data/javazone-all-all.txt", true, true, Arrays.asList("en", "no")));
+        if (chunked) {
+            targets.forEach(Target::chunked);
+        }
+        new DumpContent().dumpContent(targets);
     }
 
     public void dumpContent(String output, boolean dumpBio, boolean dumpPresentation, List<String> languages) {
-        DataProvider reader = new DataProvider();
+        dumpContent(Collections.singletonList(new Target(output, dumpBio, dumpPresentation, languages)));
+    }
+
+    /**
+     * Writes all the given dumps in one pass over the corpus. Each presentation is formatted once
+     * and streamed to every dump whose languages it matches.
+     */
+    public void dumpContent(List<Target> targets) {
+        CorpusSnapshot corpus = CorpusSnapshot.getInstance();
         List<Predicate<Presentation>> excludes = new ArrayList<>();
         excludes.addAll(DataFilter.EXCLUDES);
         excludes.add(p -> (p.getSummary() == null) && (p.getDescription() == null));
-        List<Presentation> presentations = reader.getAll(excludes);
 
-        StringBuffer buffer = new StringBuffer();
+        List<DumpWriter> writers = new ArrayList<>();
+        StringBuilder talk = new StringBuilder();
+        StringBuilder bios = new StringBuilder();
+        StringBuilder document = new StringBuilder();
 
-        for (Presentation presentation : presentations) {
-            if (languages.contains(presentation.getLanguage())) {
-                if (dumpPresentation) {
-                    String summary = StringUtils.trim(presentation.getSummary());
-                    String description = StringUtils.trim(presentation.getDescription());
+        try (Stream<Presentation> presentations = corpus.stream(excludes)) {
+            for (Target target : targets) {
+                writers.add(target.chunked ? new ChunkedWriter(target.output + ".gz") : new PlainWriter(target.output));
+            }
 
-                    if (!StringUtils.isEmpty(summary))
-                        buffer = buffer.append(summary).append("\n");
+            Iterator<Presentation> iterator = presentations.iterator();
+            while (iterator.hasNext()) {
+                Presentation presentation = iterator.next();
+                talk.setLength(0);
+                bios.setLength(0);
+                appendTalk(presentation, talk);
+                appendBios(presentation, bios);
 
-                    if (!StringUtils.isEmpty(description))
-                        buffer = buffer.append(description).append("\n");
+                for (int i = 0; i < targets.size(); i++) {
+                    Target target = targets.get(i);
+                    if (!target.languages.contains(presentation.getLanguage())) {
+                        continue;
+                    }
+                    document.setLength(0);
+                    if (target.dumpPresentation)
+                        document.append(talk);
+                    if (target.dumpBio)
+                        document.append(bios);
+                    writers.get(i).write(document);
                 }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            for (DumpWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
 
-                if (dumpBio) {
-                    String bios = "";
-                    for (Speaker speaker : presentation.getSpeakers()) {
-                        String bio = StringUtils.trim(speaker.getBiography());
-                        if (!StringUtils.isEmpty(bio))
-                            bios += bio + "\n";
-                    }
+    private void appendTalk(Presentation presentation, StringBuilder talk) {
+        String summary = StringUtils.trim(presentation.getSummary());
+        String description = StringUtils.trim(presentation.getDescription());
 
-                    if (!StringUtils.isEmpty(bios))
-                        buffer = buffer.append(bios);
-                }
+        if (!StringUtils.isEmpty(summary))
+            talk.append(summary).append("\n");
 
-                if (buffer.length() > 0)
-                    buffer = buffer.append("\n");
+        if (!StringUtils.isEmpty(description))
+            talk.append(description).append("\n");
+    }
+
+    private void appendBios(Presentation presentation, StringBuilder bios) {
+        for (Speaker speaker : presentation.getSpeakers()) {
+            String bio = StringUtils.trim(speaker.getBiography());
+            if (!StringUtils.isEmpty(bio))
+                bios.append(bio).append("\n");
+        }
+    }
+
+    /**
+     * One text dump: which languages to include, and whether to write the talk, the speaker bios or both.
+     */
+    public static class Target {
+        private final String output;
+        private final boolean dumpBio;
+        private final boolean dumpPresentation;
+        private final List<String> languages;
+        private boolean chunked;
+
+        public Target(String output, boolean dumpBio, boolean dumpPresentation, List<String> languages) {
+            this.output = output;
+            this.dumpBio = dumpBio;
+            this.dumpPresentation = dumpPresentation;
+            this.languages = languages;
+        }
+
+        /**
+         * Write this dump with {@link ChunkedDumpWriter} to &lt;output&gt;.gz, one document per presentation.
+         */
+        public Target chunked() {
+            chunked = true;
+            return this;
+        }
+    }
+
+    private interface DumpWriter extends Closeable {
+        void write(CharSequence document) throws IOException;
+    }
+
+    /**
+     * Plain text, documents separated by an empty line.
+     */
+    private static class PlainWriter implements DumpWriter {
+        private final BufferedWriter writer;
+        private boolean written;
+
+        PlainWriter(String output) throws IOException {
+            writer = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(CharSequence document) throws IOException {
+            if (document.length() > 0) {
+                writer.append(document);
+                written = true;
             }
+            if (written)
+                writer.append("\n");
         }
 
-        IOUtils.writeStringToFileNoExceptions(buffer.toString(), output, StandardCharsets.UTF_8.name());
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Skips the same documents as {@link PlainWriter}, so the decompressed data matches the plain dump.
+     */
+    private static class ChunkedWriter implements DumpWriter {
+        private final ChunkedDumpWriter writer;
+        private boolean written;
+
+        ChunkedWriter(String output) throws IOException {
+            writer = new ChunkedDumpWriter(output);
+        }
+
+        @Override
+        public void write(CharSequence document) throws IOException {
+            if (document.length() > 0)
+                written = true;
+            if (written)
+                writer.write(document);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
     }
 }
@@ -0,0 +1,64 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Presentations to leave out, keyed on year and normalised title, so testing a presentation is a
+ * single hash lookup however many entries there are.
+ * <p>
+ * The resource format is one <code>year&lt;TAB&gt;title</code> per line, lines starting with # are comments.
+ */
+public class ExclusionSet implements Predicate<Presentation> {
+    private final Set<String> keys = new HashSet<>();
+
+    public static ExclusionSet fromResource(String resource) {
+        ExclusionSet exclusions = new ExclusionSet();
+        InputStream input = ExclusionSet.class.getResourceAsStream(resource);
+        if (input == null) {
+            throw new IllegalArgumentException("Missing exclusion list " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                if (tab < 0) {
+                    throw new IllegalArgumentException("Expected <year><TAB><title> in " + resource + ": " + line);
+                }
+                exclusions.add(Integer.parseInt(line.substring(0, tab).trim()), line.substring(tab + 1));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return exclusions;
+    }
+
+    public void add(int year, String title) {
+        keys.add(key(year, title));
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public boolean test(Presentation presentation) {
+        return presentation.getTitle() != null && keys.contains(key(presentation.getYear(), presentation.getTitle()));
+    }
+
+    private static String key(int year, String title) {
+        return year + "\t" + title.trim().toLowerCase(Locale.ROOT);
+    }
+}
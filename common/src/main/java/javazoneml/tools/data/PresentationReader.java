@@ -0,0 +1,73 @@
+package javazoneml.tools.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import javazoneml.model.Presentation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a JSON array of presentations one element at a time, so only the presentation being
+ * handed out is held in memory.
+ */
+public class PresentationReader implements Iterator<Presentation>, Closeable {
+    private static final Gson gson = new GsonBuilder().create();
+    private final JsonReader reader;
+    private boolean open;
+
+    public PresentationReader(InputStream input) throws IOException {
+        reader = new JsonReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        reader.beginArray();
+        open = true;
+    }
+
+    /**
+     * A lazy stream over the presentations in the given input, closing it when the stream is closed.
+     */
+    public static Stream<Presentation> stream(InputStream input) throws IOException {
+        PresentationReader reader = new PresentationReader(input);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return open && reader.peek() != JsonToken.END_ARRAY;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Presentation next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return gson.fromJson(reader, Presentation.class);
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
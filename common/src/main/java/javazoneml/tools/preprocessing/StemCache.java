@@ -0,0 +1,70 @@
+package javazoneml.tools.preprocessing;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Bounded word to stem memo in front of the {@link Stemmer}. Word frequencies in the corpus are
+ * heavily skewed, so most lookups are a single hash probe and only rare words reach the stemmer.
+ * <p>
+ * Safe for concurrent use, misses are stemmed with {@link Stemmer#forCurrentThread()}. When the
+ * cache is full the least recently used words are evicted.
+ */
+public class StemCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 50_000;
+
+    private static final StemCache shared = new StemCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final Cache<String, String> stems;
+
+    public StemCache(int maximumSize) {
+        stems = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The cache used by all stemming call sites.
+     */
+    public static StemCache shared() {
+        return shared;
+    }
+
+    /**
+     * @return the stem of <code>word</code>, or <code>word</code> itself when it is its own stem
+     */
+    public String stem(String word) {
+        String stem = stems.getIfPresent(word);
+        if (stem == null) {
+            stem = Stemmer.forCurrentThread().stem(word);
+            if (stem.equals(word)) {
+                stem = word;
+            }
+            stems.put(word, stem);
+        }
+        return stem;
+    }
+
+    public long size() {
+        return stems.size();
+    }
+
+    public long getHitCount() {
+        return stems.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return stems.stats().missCount();
+    }
+
+    public CacheStats getStats() {
+        return stems.stats();
+    }
+
+    public void clear() {
+        stems.invalidateAll();
+    }
+}
@@ -16,8 +16,12 @@ import java.util.function.Function;
  * Stemmer, implementing the Porter Stemming Algorithm
  * <p>
  * The Stemmer class transforms a word into its root form.  The input
- * word can be provided a character at time (by calling add()), or at once
- * by calling one of the various stem(something) methods.
+ * word is provided by calling one of the various stem(something) methods.
+ * <p>
+ * A Stemmer instance keeps the word being stemmed in a reusable buffer and is
+ * not thread-safe. Use {@link #forCurrentThread()} to get an instance confined
+ * to the calling thread, and the stem(char[], ...) or stem(CharSequence, ...)
+ * methods to stem without allocating.
  */
 
 public class Stemmer implements Function<Word, Word> {
@@ -26,6 +30,7 @@ public class Stemmer implements Function<Word, Word> {
             i_end, /* offset to end of stemmed word */
             j, k;
     private static final int INC = 50;
+    private static final ThreadLocal<Stemmer> perThread = ThreadLocal.withInitial(Stemmer::new);
 
     /* unit of size whereby b is increased */
     public Stemmer() {
@@ -35,17 +40,20 @@ public class Stemmer implements Function<Word, Word> {
     }
 
     /**
-     * Add a character to the word being stemmed.  When you are finished
-     * adding characters, you can call stem(void) to stem the word.
+     * The Stemmer confined to the calling thread.
      */
+    public static Stemmer forCurrentThread() {
+        return perThread.get();
+    }
 
-    private void add(char ch) {
-        if (i == b.length) {
-            char[] new_b = new char[i + INC];
-            System.arraycopy(b, 0, new_b, 0, i);
-            b = new_b;
+    /**
+     * Make room for a word of the given length, growing b only when it is too small.
+     */
+    private void reserve(int length) {
+        if (length > b.length) {
+            b = new char[length + INC];
         }
-        b[i++] = ch;
+        i = length;
     }
 
 
@@ -535,7 +543,7 @@ public class Stemmer implements Function<Word, Word> {
     }
 
     /**
-     * Stem the word placed into the Stemmer buffer through calls to add().
+     * Stem the word placed into the Stemmer buffer after reserve().
      * Returns true if the stemming process resulted in a word different
      * from the input.  You can retrieve the result with
      * getResultLength()/getResultBuffer() or toString().
@@ -584,14 +592,44 @@ public class Stemmer implements Function<Word, Word> {
      */
 
     public String stem(String s) {
-        char[] characters = s.toCharArray();
-        for (char character : characters) {
-            add(character);
-        }
+        reserve(s.length());
+        s.getChars(0, s.length(), b, 0);
         stem();
         return toString();
     }
 
+    /**
+     * Stems <code>length</code> characters of <code>word</code> starting at
+     * <code>offset</code> and writes the stem to <code>dest</code> at
+     * <code>destOffset</code>. The stem is never longer than the word, so
+     * <code>dest</code> needs room for <code>length</code> characters.
+     *
+     * @return the length of the stem
+     */
+    public int stem(char[] word, int offset, int length, char[] dest, int destOffset) {
+        reserve(length);
+        System.arraycopy(word, offset, b, 0, length);
+        stem();
+        System.arraycopy(b, 0, dest, destOffset, i_end);
+        return i_end;
+    }
+
+    /**
+     * Stems the characters of <code>word</code> from <code>start</code> to
+     * <code>end</code> (exclusive), see {@link #stem(char[], int, int, char[], int)}.
+     *
+     * @return the length of the stem
+     */
+    public int stem(CharSequence word, int start, int end, char[] dest, int destOffset) {
+        reserve(end - start);
+        for (int n = start; n < end; n++) {
+            b[n - start] = word.charAt(n);
+        }
+        stem();
+        System.arraycopy(b, 0, dest, destOffset, i_end);
+        return i_end;
+    }
+
     /**
      * Stems <code>w</code> and returns stemmed <code>Word</code>.
      */
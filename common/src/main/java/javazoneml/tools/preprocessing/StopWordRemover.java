@@ -1,31 +1,82 @@
 package javazoneml.tools.preprocessing;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Removes stop words in a single pass over the text. Tokens are separated by whitespace and compared
+ * to the stop words ignoring case, the remaining tokens keep their original case.
+ */
 public class StopWordRemover {
-    private static final String space = " ";
-    private List<String> stopWords = new ArrayList<>();
+    private static final char space = ' ';
+    private final StopWordSet stopWords;
 
     public StopWordRemover(List<String> stopWords){
+        this(StopWordSet.of(stopWords));
+    }
+
+    public StopWordRemover(StopWordSet stopWords){
         this.stopWords = stopWords;
     }
 
+    /**
+     * @return the tokens of <code>str</code> that are not stop words, separated by single spaces
+     */
     public String removeStopWords(String str){
         if(str == null){
             return null;
         }
-        return trimAndSplit(str).stream().filter(s -> !isStopWord(s)).collect(Collectors.joining(space));
+        StringBuilder result = new StringBuilder(str.length());
+        removeStopWords(str, 0, str.length(), (text, start, end) -> {
+            if (result.length() > 0) {
+                result.append(space);
+            }
+            result.append(text, start, end);
+        });
+        return result.toString();
     }
 
-    private List<String> trimAndSplit(String str){
-        str = str.replaceAll("\\s+", space).trim();
-        return Arrays.asList(str.split(space));
+    /**
+     * Scans the characters from <code>start</code> to <code>end</code> (exclusive) and passes every
+     * token that is not a stop word to <code>sink</code>.
+     */
+    public void removeStopWords(CharSequence text, int start, int end, TokenSink sink){
+        // like String.trim(), leading and trailing control characters do not form tokens
+        while (start < end && text.charAt(start) <= space) {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= space) {
+            end--;
+        }
+        int tokenStart = -1;
+        for (int i = start; i < end; i++) {
+            if (isWhitespace(text.charAt(i))) {
+                if (tokenStart >= 0) {
+                    emit(text, tokenStart, i, sink);
+                    tokenStart = -1;
+                }
+            } else if (tokenStart < 0) {
+                tokenStart = i;
+            }
+        }
+        if (tokenStart >= 0) {
+            emit(text, tokenStart, end, sink);
+        }
+    }
+
+    public boolean isStopWord(CharSequence text, int start, int end){
+        return stopWords.contains(text, start, end);
+    }
+
+    private void emit(CharSequence text, int start, int end, TokenSink sink){
+        if (!stopWords.contains(text, start, end)) {
+            sink.accept(text, start, end);
+        }
     }
 
-    private boolean isStopWord(String str){
-        return stopWords.contains(str.toLowerCase());
+    /**
+     * The characters matched by \s in a regular expression.
+     */
+    private static boolean isWhitespace(char c){
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 }
@@ -0,0 +1,146 @@
+package javazoneml.tools.preprocessing;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable set of stop words with a perfect hash, so a lookup hashes the candidate once, probes a
+ * single slot and compares against at most one word. Lookups take character ranges and compare
+ * case-insensitively, without creating a lower-cased copy of the candidate.
+ * <p>
+ * Uses hash and displace: words are first hashed into small buckets, then every bucket gets a seed
+ * that places all its words in free slots of the table.
+ */
+public class StopWordSet {
+    private final char[][] words;
+    private final int[] seeds;
+    private final int mask;
+
+    private StopWordSet(char[][] words, int[] seeds) {
+        this.words = words;
+        this.seeds = seeds;
+        this.mask = words.length - 1;
+    }
+
+    public static StopWordSet of(Collection<String> stopWords) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String word : stopWords) {
+            distinct.add(word.toLowerCase());
+        }
+        char[][] keys = new char[distinct.size()][];
+        int n = 0;
+        for (String word : distinct) {
+            keys[n++] = word.toCharArray();
+        }
+
+        int slots = Integer.highestOneBit(Math.max(1, keys.length) * 2 - 1) * 2;
+        int bucketCount = Math.max(1, keys.length / 4);
+        int[][] buckets = new int[bucketCount][];
+        int[] sizes = new int[bucketCount];
+        for (int key = 0; key < keys.length; key++) {
+            int bucket = bucket(hash(keys[key], 0), bucketCount);
+            if (buckets[bucket] == null) {
+                buckets[bucket] = new int[4];
+            } else if (sizes[bucket] == buckets[bucket].length) {
+                buckets[bucket] = Arrays.copyOf(buckets[bucket], sizes[bucket] * 2);
+            }
+            buckets[bucket][sizes[bucket]++] = key;
+        }
+
+        Integer[] order = new Integer[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(sizes[b], sizes[a]));
+
+        char[][] table = new char[slots][];
+        int[] seeds = new int[bucketCount];
+        int[] placed = new int[keys.length];
+        for (int bucket : order) {
+            if (sizes[bucket] == 0) {
+                continue;
+            }
+            for (int seed = 1; ; seed++) {
+                if (place(keys, buckets[bucket], sizes[bucket], seed, table, placed)) {
+                    seeds[bucket] = seed;
+                    break;
+                }
+            }
+        }
+        return new StopWordSet(table, seeds);
+    }
+
+    public static StopWordSet of(List<String> first, List<String> second) {
+        Set<String> words = new LinkedHashSet<>(first);
+        words.addAll(second);
+        return of(words);
+    }
+
+    private static boolean place(char[][] keys, int[] bucket, int size, int seed, char[][] table, int[] placed) {
+        int mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[bucket[i]], seed) & mask;
+            if (table[slot] != null) {
+                for (int j = 0; j < i; j++) {
+                    table[placed[j]] = null;
+                }
+                return false;
+            }
+            table[slot] = keys[bucket[i]];
+            placed[i] = slot;
+        }
+        return true;
+    }
+
+    public boolean contains(String word) {
+        return contains(word, 0, word.length());
+    }
+
+    /**
+     * @return whether the characters from <code>start</code> to <code>end</code> (exclusive) are a
+     * stop word, ignoring case
+     */
+    public boolean contains(CharSequence text, int start, int end) {
+        int bucket = bucket(hash(text, start, end, 0), seeds.length);
+        char[] word = words[hash(text, start, end, seeds[bucket]) & mask];
+        if (word == null || word.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (word[i] != Character.toLowerCase(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bucket(int hash, int bucketCount) {
+        return (hash >>> 1) % bucketCount;
+    }
+
+    private static int hash(char[] word, int seed) {
+        int h = seed * 0x9E3779B9;
+        for (char c : word) {
+            h = (h ^ c) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    private static int hash(CharSequence text, int start, int end, int seed) {
+        int h = seed * 0x9E3779B9;
+        for (int i = start; i < end; i++) {
+            h = (h ^ Character.toLowerCase(text.charAt(i))) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -0,0 +1,342 @@
+package javazoneml.tools.preprocessing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Assigns dense int ids to terms, in order of first appearance, and counts the number of documents
+ * every term occurs in.
+ * <p>
+ * All term characters live back to back in one char arena, and the term to id lookup is an open
+ * addressing table of ids, so the dictionary holds no object per term. Lookups take character
+ * ranges, a term is only copied when it is added.
+ * <p>
+ * Safe for concurrent use. Terms are only added under a lock, and every added term is published in
+ * an immutable {@link View} of the arrays. Looking up and reading existing terms goes through the current
+ * view without locking, so concurrent pipelines only contend when they add terms. Document frequencies
+ * are kept under the lock.
+ * <p>
+ * {@link #save(Path)} writes the terms and document frequencies, {@link #load(Path)} reads them from a
+ * memory-mapped file into a new dictionary held on the heap.
+ */
+public class TermDictionary {
+    static final int MAGIC = 0x4A5A5444; // "JZTD"
+    static final int VERSION = 1;
+    private static final int PENDING = -2;
+
+    private char[] arena;
+    private int arenaLength;
+    private int[] starts;
+    private int[] hashes;
+    private int[] documentFrequencies;
+    private int[] lastDocuments;
+    private int size;
+    private int documentCount;
+    private int[] table;
+    private int mask;
+    private volatile View view;
+
+    public TermDictionary() {
+        this(1024);
+    }
+
+    public TermDictionary(int expectedTerms) {
+        int capacity = Math.max(16, expectedTerms);
+        arena = new char[capacity * 8];
+        starts = new int[capacity + 1];
+        hashes = new int[capacity];
+        documentFrequencies = new int[capacity];
+        lastDocuments = new int[capacity];
+        table = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+        Arrays.fill(table, -1);
+        mask = table.length - 1;
+        publish();
+    }
+
+    /**
+     * @return the id of <code>term</code>, adding it if it is new
+     */
+    public int id(String term) {
+        return id(term, 0, term.length());
+    }
+
+    /**
+     * @return the id of the characters from <code>start</code> to <code>end</code> (exclusive),
+     * adding them as a new term if needed
+     */
+    public int id(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        int id = view.find(text, start, end, hash);
+        return id >= 0 ? id : add(text, start, end, hash);
+    }
+
+    private synchronized int add(CharSequence text, int start, int end, int hash) {
+        int slot = slot(text, start, end, hash);
+        if (table[slot] >= 0) {
+            return table[slot];
+        }
+        int id = append(text, start, end, hash);
+        table[slot] = id;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        publish();
+        return id;
+    }
+
+    /**
+     * @return the id of <code>term</code>, or -1 if it is not in the dictionary
+     */
+    public int find(String term) {
+        return find(term, 0, term.length());
+    }
+
+    public int find(CharSequence text, int start, int end) {
+        int hash = hash(text, start, end);
+        int id = view.find(text, start, end, hash);
+        if (id == PENDING) {
+            synchronized (this) {
+                id = table[slot(text, start, end, hash)];
+            }
+        }
+        return id;
+    }
+
+    public String term(int id) {
+        View current = view;
+        if (id >= current.size) {
+            // the term may have been added since the view was read
+            synchronized (this) {
+                current = view;
+            }
+        }
+        if (id < 0 || id >= current.size) {
+            throw new IndexOutOfBoundsException("Term " + id + ", size " + current.size);
+        }
+        return new String(current.arena, current.starts[id], current.starts[id + 1] - current.starts[id]);
+    }
+
+    public int size() {
+        return view.size;
+    }
+
+    /**
+     * Counts a document: every distinct id among <code>ids</code> from <code>from</code> to
+     * <code>to</code> (exclusive) gets its document frequency increased by one.
+     */
+    public synchronized void addDocument(int[] ids, int from, int to) {
+        int document = ++documentCount;
+        for (int i = from; i < to; i++) {
+            int id = ids[i];
+            checkId(id);
+            if (lastDocuments[id] != document) {
+                lastDocuments[id] = document;
+                documentFrequencies[id]++;
+            }
+        }
+    }
+
+    public void addDocument(int[] ids) {
+        addDocument(ids, 0, ids.length);
+    }
+
+    /**
+     * @return the number of documents counted with {@link #addDocument(int[], int, int)}
+     */
+    public synchronized int getDocumentCount() {
+        return documentCount;
+    }
+
+    public synchronized int getDocumentFrequency(int id) {
+        checkId(id);
+        return documentFrequencies[id];
+    }
+
+    public synchronized void save(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            out.writeInt(documentCount);
+            out.writeInt(arenaLength);
+            for (int id = 0; id <= size; id++) {
+                out.writeInt(starts[id]);
+            }
+            for (int id = 0; id < size; id++) {
+                out.writeInt(documentFrequencies[id]);
+            }
+            for (int i = 0; i < arenaLength; i++) {
+                out.writeChar(arena[i]);
+            }
+        }
+    }
+
+    public static TermDictionary load(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a term dictionary (version " + VERSION + "): " + file);
+        }
+        int size = buffer.getInt();
+        int documentCount = buffer.getInt();
+        int arenaLength = buffer.getInt();
+
+        TermDictionary dictionary = new TermDictionary(size);
+        IntBuffer ints = buffer.asIntBuffer();
+        int[] starts = new int[size + 1];
+        int[] documentFrequencies = new int[size];
+        ints.get(starts);
+        ints.get(documentFrequencies);
+        buffer.position(buffer.position() + (starts.length + documentFrequencies.length) * Integer.BYTES);
+        CharBuffer chars = buffer.asCharBuffer();
+        char[] arena = new char[Math.max(arenaLength, 16)];
+        chars.get(arena, 0, arenaLength);
+
+        CharBuffer terms = CharBuffer.wrap(arena);
+        for (int id = 0; id < size; id++) {
+            dictionary.id(terms, starts[id], starts[id + 1]);
+            dictionary.documentFrequencies[id] = documentFrequencies[id];
+        }
+        dictionary.documentCount = documentCount;
+        return dictionary;
+    }
+
+    private int append(CharSequence text, int start, int end, int hash) {
+        int length = end - start;
+        if (size == hashes.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity + 1);
+            hashes = Arrays.copyOf(hashes, capacity);
+            documentFrequencies = Arrays.copyOf(documentFrequencies, capacity);
+            lastDocuments = Arrays.copyOf(lastDocuments, capacity);
+        }
+        if (arenaLength + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + length));
+        }
+        for (int i = start; i < end; i++) {
+            arena[arenaLength++] = text.charAt(i);
+        }
+        int id = size++;
+        hashes[id] = hash;
+        starts[id + 1] = arenaLength;
+        return id;
+    }
+
+    /**
+     * @return the slot holding the term, or the empty slot where it belongs
+     */
+    private int slot(CharSequence text, int start, int end, int hash) {
+        int slot = hash & mask;
+        while (table[slot] >= 0 && !matches(table[slot], text, start, end, hash)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int id, CharSequence text, int start, int end, int hash) {
+        return matches(arena, starts, hashes, id, text, start, end, hash);
+    }
+
+    private static boolean matches(char[] arena, int[] starts, int[] hashes, int id, CharSequence text, int start, int end, int hash) {
+        if (hashes[id] != hash || starts[id + 1] - starts[id] != end - start) {
+            return false;
+        }
+        for (int i = starts[id], j = start; j < end; i++, j++) {
+            if (arena[i] != text.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void publish() {
+        view = new View(arena, starts, hashes, table, size);
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, -1);
+        mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Term " + id + ", size " + size);
+        }
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            h = (h ^ text.charAt(i)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    /**
+     * The arrays as of the last added term. The terms below <code>size</code> never change, the arrays
+     * only change beyond them, or are replaced by copies when they grow. The table may already hold ids
+     * of terms that are being added, which are not in the view yet.
+     */
+    private static final class View {
+        private final char[] arena;
+        private final int[] starts;
+        private final int[] hashes;
+        private final int[] table;
+        private final int size;
+
+        private View(char[] arena, int[] starts, int[] hashes, int[] table, int size) {
+            this.arena = arena;
+            this.starts = starts;
+            this.hashes = hashes;
+            this.table = table;
+            this.size = size;
+        }
+
+        /**
+         * @return the id of the term, -1 if it is not in the dictionary, or PENDING if the
+         * lookup ran into a term added after this view
+         */
+        private int find(CharSequence text, int start, int end, int hash) {
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            while (true) {
+                int id = table[slot];
+                if (id < 0) {
+                    return -1;
+                }
+                if (id >= size) {
+                    return PENDING;
+                }
+                if (matches(arena, starts, hashes, id, text, start, end, hash)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+}
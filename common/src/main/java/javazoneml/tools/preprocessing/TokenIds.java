@@ -0,0 +1,47 @@
+package javazoneml.tools.preprocessing;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Growable buffer of token ids.
+ */
+public class TokenIds implements IntConsumer {
+    private int[] ids;
+    private int size;
+
+    public TokenIds() {
+        this(64);
+    }
+
+    public TokenIds(int capacity) {
+        ids = new int[Math.max(1, capacity)];
+    }
+
+    @Override
+    public void accept(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return ids[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,125 @@
+package javazoneml.tools.preprocessing;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Turns text into token ids: lowercase, tokenize, drop stop words, stem and look up the id of the
+ * result. Every stage except tokenizing and the id lookup is optional, see {@link #builder()}.
+ * <p>
+ * Tokens are handled as ranges of the input until the stop word check has passed, so stop words cost
+ * no allocation, and without stemming neither do terms that are already in the dictionary. A pipeline
+ * holds no per-call state and can be shared by threads, as long as its {@link TermDictionary} is.
+ */
+public class TokenPipeline {
+    private final Tokenizer tokenizer;
+    private final boolean lowercase;
+    private final StopWordSet stopWords;
+    private final StemCache stems;
+    private final TermDictionary dictionary;
+
+    private TokenPipeline(Builder builder) {
+        this.tokenizer = builder.tokenizer;
+        this.lowercase = builder.lowercase;
+        this.stopWords = builder.stopWords;
+        this.stems = builder.stems;
+        this.dictionary = builder.dictionary;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Passes the id of every token of <code>text</code> to <code>ids</code>, null text has no tokens.
+     */
+    public void process(CharSequence text, IntConsumer ids) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        tokenizer.tokenize(text, (t, start, end) -> {
+            if (stopWords != null && stopWords.contains(t, start, end)) {
+                return;
+            }
+            token.setLength(0);
+            for (int i = start; i < end; i++) {
+                char c = t.charAt(i);
+                token.append(lowercase ? Character.toLowerCase(c) : c);
+            }
+            if (stems != null) {
+                ids.accept(dictionary.id(stems.stem(token.toString())));
+            } else {
+                ids.accept(dictionary.id(token, 0, token.length()));
+            }
+        });
+    }
+
+    public int[] process(CharSequence text) {
+        TokenIds ids = new TokenIds();
+        process(text, ids);
+        return ids.toArray();
+    }
+
+    /**
+     * Tokenizes all <code>documents</code> into one shared view.
+     */
+    public TokenizedCorpus process(List<? extends CharSequence> documents) {
+        return new TokenizedCorpus(this, documents);
+    }
+
+    public TermDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public static class Builder {
+        private Tokenizer tokenizer = Tokenizer.WORDS;
+        private boolean lowercase = true;
+        private StopWordSet stopWords;
+        private StemCache stems;
+        private TermDictionary dictionary;
+
+        public Builder tokenizer(Tokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+            return this;
+        }
+
+        /**
+         * Keep the case of the tokens, they are lower-cased by default.
+         */
+        public Builder keepCase() {
+            this.lowercase = false;
+            return this;
+        }
+
+        public Builder stopWords(StopWordSet stopWords) {
+            this.stopWords = stopWords;
+            return this;
+        }
+
+        public Builder stopWords(List<String> stopWords) {
+            return stopWords(StopWordSet.of(stopWords));
+        }
+
+        public Builder stem() {
+            return stem(StemCache.shared());
+        }
+
+        public Builder stem(StemCache stems) {
+            this.stems = stems;
+            return this;
+        }
+
+        public Builder dictionary(TermDictionary dictionary) {
+            this.dictionary = dictionary;
+            return this;
+        }
+
+        public TokenPipeline build() {
+            if (dictionary == null) {
+                dictionary = new TermDictionary();
+            }
+            return new TokenPipeline(this);
+        }
+    }
+}
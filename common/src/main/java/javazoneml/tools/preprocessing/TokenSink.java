@@ -0,0 +1,16 @@
+package javazoneml.tools.preprocessing;
+
+/**
+ * Receives tokens as character ranges of the scanned text, so scanners can hand out tokens without
+ * creating a String for each of them.
+ */
+@FunctionalInterface
+public interface TokenSink {
+
+    /**
+     * @param text  the scanned text
+     * @param start first character of the token
+     * @param end   end of the token, exclusive
+     */
+    void accept(CharSequence text, int start, int end);
+}
@@ -0,0 +1,48 @@
+package javazoneml.tools.preprocessing;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Token ids of a list of documents, stored back to back in one int array. Built once by a
+ * {@link TokenPipeline} and shared read-only by everything that needs the tokenized corpus.
+ */
+public class TokenizedCorpus {
+    private final TermDictionary dictionary;
+    private final int[] ids;
+    private final int[] offsets;
+
+    TokenizedCorpus(TokenPipeline pipeline, List<? extends CharSequence> documents) {
+        this.dictionary = pipeline.getDictionary();
+        TokenIds all = new TokenIds(1024);
+        offsets = new int[documents.size() + 1];
+        for (int document = 0; document < documents.size(); document++) {
+            pipeline.process(documents.get(document), all);
+            offsets[document + 1] = all.size();
+        }
+        ids = all.toArray();
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public int length(int document) {
+        return offsets[document + 1] - offsets[document];
+    }
+
+    public int id(int document, int position) {
+        if (position < 0 || position >= length(document)) {
+            throw new IndexOutOfBoundsException("Position " + position + ", length " + length(document));
+        }
+        return ids[offsets[document] + position];
+    }
+
+    public int[] document(int document) {
+        return Arrays.copyOfRange(ids, offsets[document], offsets[document + 1]);
+    }
+
+    public TermDictionary getDictionary() {
+        return dictionary;
+    }
+}
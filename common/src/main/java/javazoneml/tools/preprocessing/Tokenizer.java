@@ -0,0 +1,86 @@
+package javazoneml.tools.preprocessing;
+
+/**
+ * Splits text into tokens, passed to a {@link TokenSink} as character ranges.
+ */
+@FunctionalInterface
+public interface Tokenizer {
+
+    /**
+     * Runs of the ASCII letters a-z and A-Z, the tokens ContentStats gets by replacing
+     * everything else with spaces.
+     */
+    Tokenizer ASCII_LETTERS = Tokenizer::asciiLetters;
+
+    /**
+     * Tokens matching <code>\p{L}[\p{L}\p{P}]+\p{L}</code>: at least three characters, starting and
+     * ending with a letter, with letters and punctuation in between. The pattern TopicModeling gives
+     * Mallet.
+     */
+    Tokenizer WORDS = Tokenizer::words;
+
+    void tokenize(CharSequence text, int start, int end, TokenSink sink);
+
+    default void tokenize(CharSequence text, TokenSink sink) {
+        tokenize(text, 0, text.length(), sink);
+    }
+
+    static void asciiLetters(CharSequence text, int start, int end, TokenSink sink) {
+        int tokenStart = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            if (letter && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!letter && tokenStart >= 0) {
+                sink.accept(text, tokenStart, i);
+                tokenStart = -1;
+            }
+        }
+        if (tokenStart >= 0) {
+            sink.accept(text, tokenStart, end);
+        }
+    }
+
+    static void words(CharSequence text, int start, int end, TokenSink sink) {
+        int i = start;
+        while (i < end) {
+            if (!Character.isLetter(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            // the longest run of letters and punctuation, backed off to its last letter
+            int lastLetter = i;
+            int j = i + 1;
+            for (; j < end; j++) {
+                char c = text.charAt(j);
+                if (Character.isLetter(c)) {
+                    lastLetter = j;
+                } else if (!isPunctuation(c)) {
+                    break;
+                }
+            }
+            if (lastLetter - i >= 2) {
+                sink.accept(text, i, lastLetter + 1);
+                i = lastLetter + 1;
+            } else {
+                i = j;
+            }
+        }
+    }
+
+    static boolean isPunctuation(char c) {
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -1,109 +1,99 @@
 package javazoneml.tools.stats;
 
 import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
 import javazoneml.tools.data.DataFilter;
-import javazoneml.tools.data.DataProvider;
+import javazoneml.tools.stats.FacetAggregator.Facet;
 
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class BasicStats {
+    private static final String[] WORD_MEASURES = {"words-summary", "words-descr", "words-title", "words-keywords"};
 
     public static void main(String[] args) {
-        new BasicStats().printCommonStats();
-        new BasicStats().printContentStats();
+        new BasicStats().printStats();
+    }
+
+    /**
+     * Prints the common and the content stats from a single pass over the corpus.
+     */
+    public void printStats() {
+        FacetAggregator.Result stats = aggregate();
+        printCommonStats(stats);
+        printContentStats(stats);
     }
 
     public void printCommonStats() {
-        DataProvider reader = new DataProvider();
+        printCommonStats(aggregate());
+    }
+
+    public void printContentStats() {
+        printContentStats(aggregate());
+    }
+
+    private FacetAggregator.Result aggregate() {
+        CorpusSnapshot corpus = CorpusSnapshot.getInstance();
         List<Predicate<Presentation>> excludes = new ArrayList<>();
         excludes.addAll(DataFilter.EXCLUDES);
         excludes.add(p -> (p.getSummary() == null) && (p.getDescription() == null));
-        List<Presentation> presentations = reader.getAll(excludes);
-
-        HashMap<String, Long> stats = new HashMap<>();
 
-        for (Presentation presentation : presentations) {
-            stats.compute("level (" + presentation.getLevel() + ")", (k, v) -> v == null ? 1 : v + 1);
-            stats.compute("language (" + presentation.getLanguage() + ")", (k, v) -> v == null ? 1 : v + 1);
-            stats.compute("year (" + presentation.getYear() + ")", (k, v) -> v == null ? 1 : v + 1);
-            stats.compute("format (" + presentation.getFormat() + ")", (k, v) -> v == null ? 1 : v + 1);
+        FacetAggregator aggregator = new FacetAggregator()
+                .groupBy(Facet.LEVEL)
+                .groupBy(Facet.LANGUAGE)
+                .groupBy(Facet.YEAR)
+                .groupBy(Facet.FORMAT)
+                .groupBy()
+                .measure("documents", p -> 1)
+                .measure("words-summary", p -> FacetAggregator.wordCount(p.getSummary()))
+                .measure("words-descr", p -> FacetAggregator.wordCount(p.getDescription()))
+                .measure("words-title", p -> FacetAggregator.wordCount(p.getTitle()))
+                .measure("words-keywords", p -> p.getKeyWords() == null ? 0 : p.getKeyWords().size());
+
+        try (Stream<Presentation> presentations = corpus.stream(excludes)) {
+            return presentations.parallel().collect(aggregator.collector());
         }
+    }
+
+    private void printCommonStats(FacetAggregator.Result result) {
+        HashMap<String, Long> stats = new HashMap<>();
+        put(stats, "level", result.get("documents", Facet.LEVEL));
+        put(stats, "language", result.get("documents", Facet.LANGUAGE));
+        put(stats, "year", result.get("documents", Facet.YEAR));
+        put(stats, "format", result.get("documents", Facet.FORMAT));
 
         System.out.println("=== Common stats ===");
         stats.entrySet().stream().sorted(Map.Entry.<String, Long> comparingByKey()).forEach(System.out::println);
         System.out.println("--------------------");
     }
 
-    public void printContentStats() {
-        DataProvider reader = new DataProvider();
-        List<Predicate<Presentation>> excludes = new ArrayList<>();
-        excludes.addAll(DataFilter.EXCLUDES);
-        excludes.add(p -> (p.getSummary() == null) && (p.getDescription() == null));
-        List<Presentation> presentations = reader.getAll(excludes);
-
+    private void printContentStats(FacetAggregator.Result result) {
         HashMap<String, Long> stats = new HashMap<>();
 
-        Set<Integer> years = new HashSet<>();
-        for (Presentation presentation : presentations) {
-            long wordCountSummary = getWordCount(presentation.getSummary());
-            long wordCountDescription = getWordCount(presentation.getDescription());
-            long wordCountTitle = getWordCount(presentation.getTitle());
-            long wordCountKeywords = presentation.getKeyWords() == null ? 0 : presentation.getKeyWords().size();
-            stats.compute("documents (" + presentation.getYear() + ")", (k, v) -> v == null ? 1 : v + 1);
-
-            stats.compute("words-summary (" + presentation.getYear() + ")",
-                    (k, v) -> v == null ? 1 : v + wordCountSummary);
-            stats.compute("words-descr (" + presentation.getYear() + ")",
-                    (k, v) -> v == null ? 1 : v + wordCountDescription);
-            stats.compute("words-title (" + presentation.getYear() + ")", (k, v) -> v == null ? 1 : v + wordCountTitle);
-            stats.compute("words-keywords (" + presentation.getYear() + ")",
-                    (k, v) -> v == null ? 1 : v + wordCountKeywords);
-
-            years.add(presentation.getYear());
-
-            stats.compute("documents (all)", (k, v) -> v == null ? 1 : v + 1);
-            stats.compute("words-summary (all)", (k, v) -> v == null ? 1 : v + wordCountSummary);
-            stats.compute("words-descr (all)", (k, v) -> v == null ? 1 : v + wordCountDescription);
-            stats.compute("words-title (all)", (k, v) -> v == null ? 1 : v + wordCountTitle);
-            stats.compute("words-keywords (all)", (k, v) -> v == null ? 1 : v + wordCountKeywords);
+        Map<List<String>, Long> documents = result.get("documents", Facet.YEAR);
+        put(stats, "documents", documents);
+        for (String measure : WORD_MEASURES) {
+            Map<List<String>, Long> words = result.get(measure, Facet.YEAR);
+            put(stats, measure, words);
+            for (Map.Entry<List<String>, Long> year : words.entrySet()) {
+                stats.put(measure + " (" + year.getKey().get(0) + "-avg)", year.getValue() / documents.get(year.getKey()));
+            }
         }
 
-        for (int year : years) {
-            long totalDocuments = stats.get("documents (" + year + ")");
-
-            long totalWords = stats.get("words-summary (" + year + ")");
-            stats.put("words-summary (" + year + "-avg)", totalWords / totalDocuments);
-
-            totalWords = stats.get("words-descr (" + year + ")");
-            stats.put("words-descr (" + year + "-avg)", totalWords / totalDocuments);
-
-            totalWords = stats.get("words-title (" + year + ")");
-            stats.put("words-title (" + year + "-avg)", totalWords / totalDocuments);
-
-            totalWords = stats.get("words-keywords (" + year + ")");
-            stats.put("words-keywords (" + year + "-avg)", totalWords / totalDocuments);
+        long alldocuments = result.getTotal("documents");
+        stats.put("documents (all)", alldocuments);
+        for (String measure : WORD_MEASURES) {
+            stats.put(measure + " (all)", result.getTotal(measure));
+            stats.put(measure + " (all-avg)", result.getTotal(measure) / alldocuments);
         }
 
-        long alldocuments = stats.get("documents (all)");
-        stats.put("words-summary (all-avg)", stats.get("words-summary (all)") / alldocuments);
-        stats.put("words-descr (all-avg)", stats.get("words-descr (all)") / alldocuments);
-        stats.put("words-title (all-avg)", stats.get("words-title (all)") / alldocuments);
-        stats.put("words-keywords (all-avg)", stats.get("words-keywords (all)") / alldocuments);
-
         System.out.println("=== Content stats ===");
         stats.entrySet().stream().sorted(Map.Entry.<String, Long> comparingByKey()).forEach(System.out::println);
         System.out.println("---------------------");
     }
 
-    private long getWordCount(String input) {
-        if (input == null)
-            return 0;
-
-        String[] words = input.split(" ");
-        if (words == null)
-            return 0;
-        else
-            return words.length;
+    private void put(Map<String, Long> stats, String name, Map<List<String>, Long> groups) {
+        groups.forEach((key, value) -> stats.put(name + " (" + key.get(0) + ")", value));
     }
 }
@@ -1,148 +1,131 @@
 package javazoneml.tools.stats;
 
-import com.google.common.base.Splitter;
 import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
 import javazoneml.tools.data.DataFilter;
-import javazoneml.tools.data.DataProvider;
-import javazoneml.tools.preprocessing.StopWordRemover;
+import javazoneml.tools.preprocessing.StopWordSet;
 import javazoneml.tools.preprocessing.StopWords;
+import javazoneml.tools.preprocessing.TermDictionary;
+import javazoneml.tools.preprocessing.TokenPipeline;
+import javazoneml.tools.preprocessing.TokenizedCorpus;
+import javazoneml.tools.preprocessing.Tokenizer;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 public class ContentStats {
 
-    private static List<String> noStopWords = new ArrayList<>();
-    private static List<String> enStopWords = new ArrayList<>();
-
-    static {
-        noStopWords.addAll(StopWords.NO);
-        noStopWords.addAll(StopWords.NO_SPECIFIC);
-
-        enStopWords.addAll(StopWords.EN);
-        enStopWords.addAll(StopWords.EN_SPECIFIC);
-    }
+    private static final StopWordSet noStopWords = StopWordSet.of(StopWords.NO, StopWords.NO_SPECIFIC);
+    private static final StopWordSet enStopWords = StopWordSet.of(StopWords.EN, StopWords.EN_SPECIFIC);
 
+    /**
+     * Pass a state file to update the TF-IDF stats incrementally, only reading the talks that
+     * changed since the last run.
+     */
     public static void main(String[] args) {
-        new ContentStats().printTfIdfStats("no");
+        if (args.length > 0)
+            new ContentStats().updateTfIdfStats("no", Paths.get(args[0]));
+        else
+            new ContentStats().printTfIdfStats("no");
     }
 
     public void printTfIdfStats(String language) {
-        DataProvider reader = new DataProvider();
-        List<Predicate<Presentation>> excludes = new ArrayList<>();
-        excludes.addAll(DataFilter.EXCLUDES);
-        excludes.add(p -> (p.getSummary() == null) && (p.getDescription() == null));
-        List<Presentation> presentations = reader.getAll(excludes);
+        List<Presentation> presentations = getPresentations();
 
-        List<List<String>> documents = getDocumentsContent(presentations, language);
+        TokenizedCorpus documents = pipeline(language, new TermDictionary()).process(getDocumentsContent(presentations, language));
 
         HashMap<String, Double> tfidf = getTfIdfRanking(documents);
-
-        System.out.println("=== Sorted Tf-IDF ===");
-        tfidf.entrySet().stream().sorted(Map.Entry.<String, Double> comparingByValue()).forEach(System.out::println);
+        printTfIdf(tfidf);
     }
 
-    private HashMap<String, Double> getTfIdfRanking(List<List<String>> documents) {
-
-        HashMap<String, Double> tfidf = new HashMap<>();
-        HashMap<String, List<Double>> tfidf_tmp = new HashMap<>();
-
-        System.out.println("Processing " + documents.size() + " documents");
-        int counter = 0;
-        for (List<String> document : documents) {
-            for (String word : document) {
-                double result = getTfIdf(document, documents, word);
-
-                if (tfidf_tmp.get(word) == null)
-                    tfidf_tmp.put(word, new LinkedList<>());
-
-                tfidf_tmp.get(word).add(result);
+    /**
+     * Like {@link #printTfIdfStats(String)}, but keeps the index in <code>state</code> between runs.
+     * Talks that are new or changed since the last run are added, talks that are gone are removed.
+     */
+    public void updateTfIdfStats(String language, Path state) {
+        try {
+            IncrementalTfIdf index = Files.exists(state) ? IncrementalTfIdf.load(state) : new IncrementalTfIdf();
+            TokenPipeline pipeline = pipeline(language, index.getDictionary());
+
+            Set<String> keys = new HashSet<>();
+            int updated = 0;
+            for (Presentation presentation : getPresentations()) {
+                if (!language.equalsIgnoreCase(presentation.getLanguage()))
+                    continue;
+                String key = presentation.getYear() + "\t" + presentation.getTitle();
+                String document = getDocumentContent(presentation);
+                String digest = IncrementalTfIdf.digest(document);
+                keys.add(key);
+                if (!index.isCurrent(key, digest)) {
+                    index.add(key, digest, pipeline.process(document));
+                    updated++;
+                }
             }
-
-            if (++counter % 10 == 0)
-                System.out.println(counter + ".. done");
+            int removed = index.retainAll(keys);
+            System.out.println(updated + " documents added or changed, " + removed + " removed, "
+                    + index.getDocumentCount() + " in total\n\n");
+
+            index.save(state);
+            printTfIdf(index.getAverageTfIdfByTerm());
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-
-        for (String word : tfidf_tmp.keySet()) {
-            Double result = tfidf_tmp.get(word).stream().collect(Collectors.averagingDouble(d -> d));
-            tfidf.put(word, result);
-        }
-
-        System.out.println("All documents processed!\n\n");
-
-        return tfidf;
     }
 
-    private double getTfIdf(List<String> document, List<List<String>> documents, String term) {
-        double tf = getTermFreqency(document, term);
-        double idf = getInverseDocumentFrequency(documents, term);
-        return tf * idf;
+    private List<Presentation> getPresentations() {
+        CorpusSnapshot corpus = CorpusSnapshot.getInstance();
+        List<Predicate<Presentation>> excludes = new ArrayList<>();
+        excludes.addAll(DataFilter.EXCLUDES);
+        excludes.add(p -> (p.getSummary() == null) && (p.getDescription() == null));
+        return corpus.getAll(excludes);
     }
 
-    private double getTermFreqency(List<String> document, String term) {
-        double counter = 0;
-
-        for (String token : document) {
-            if (term.equalsIgnoreCase(token))
-                counter++;
-        }
-
-        return counter / document.size();
+    private void printTfIdf(Map<String, Double> tfidf) {
+        System.out.println("=== Sorted Tf-IDF ===");
+        tfidf.entrySet().stream().sorted(Map.Entry.<String, Double> comparingByValue()).forEach(System.out::println);
     }
 
-    private double getInverseDocumentFrequency(List<List<String>> documents, String term) {
-
-        double counter = 0;
-        for (List<String> document : documents) {
-            for (String token : document) {
-                if (term.equalsIgnoreCase(token)) {
-                    counter++;
-                    break;
-                }
-            }
-        }
+    private HashMap<String, Double> getTfIdfRanking(TokenizedCorpus documents) {
+        System.out.println("Processing " + documents.size() + " documents");
+        HashMap<String, Double> tfidf = new TfIdfIndex(documents).getAverageTfIdfByTerm();
+        System.out.println("All documents processed!\n\n");
 
-        return Math.log10(documents.size() / counter);
+        return tfidf;
     }
 
-    private List<List<String>> getDocumentsContent(List<Presentation> presentations, String language) {
-        List<List<String>> documents = new LinkedList<>();
-        Splitter splitter = Splitter.on(' ');
+    private List<String> getDocumentsContent(List<Presentation> presentations, String language) {
+        List<String> documents = new ArrayList<>();
 
         for (Presentation presentation : presentations) {
-            if (language.equalsIgnoreCase(presentation.getLanguage())) {
-                String document = "";
-                if (!StringUtils.isEmpty(presentation.getSummary())
-                        && !presentation.getSummary().equals(presentation.getDescription()))
-                    document = normalizeText(presentation.getSummary(), language) + " ";
-
-                document = document + normalizeText(presentation.getDescription(), language);
-                documents.add(splitter.splitToList(document));
-            }
+            if (language.equalsIgnoreCase(presentation.getLanguage()))
+                documents.add(getDocumentContent(presentation));
         }
 
         return documents;
     }
 
-    private String removeStopWords(String document, List<String> stopWords) {
-        StopWordRemover remover = new StopWordRemover(stopWords);
-        return remover.removeStopWords(document);
-    }
+    private String getDocumentContent(Presentation presentation) {
+        String document = "";
+        if (!StringUtils.isEmpty(presentation.getSummary())
+                && !presentation.getSummary().equals(presentation.getDescription()))
+            document = presentation.getSummary() + " ";
 
-    private String normalizeText(String input, String language) {
-
-        if (StringUtils.isEmpty(input))
-            return "";
-
-        String s = input.replaceAll("[^a-zA-Z]", " ").toLowerCase();
-
-        if ("no".equalsIgnoreCase(language))
-            s = removeStopWords(s, noStopWords);
-        else
-            s = removeStopWords(s, enStopWords);
+        return document + StringUtils.defaultString(presentation.getDescription());
+    }
 
-        return s;
+    /**
+     * Lower-cased runs of ASCII letters without stop words.
+     */
+    private TokenPipeline pipeline(String language, TermDictionary dictionary) {
+        return TokenPipeline.builder()
+                .tokenizer(Tokenizer.ASCII_LETTERS)
+                .stopWords("no".equalsIgnoreCase(language) ? noStopWords : enStopWords)
+                .dictionary(dictionary)
+                .build();
     }
 }
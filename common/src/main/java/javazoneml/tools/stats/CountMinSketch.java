@@ -0,0 +1,70 @@
+package javazoneml.tools.stats;
+
+/**
+ * Approximate term counts in fixed memory. Estimates never undercount, and overcount by at most
+ * e / width of the total count with probability 1 - e^-depth.
+ * <p>
+ * Sketches with the same dimensions can be merged.
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final long[] counts;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new long[width * depth];
+    }
+
+    public void add(CharSequence term) {
+        addHash(TermHash.hash(term), 1);
+    }
+
+    public void addHash(long hash, long count) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + column(h1, h2, row)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(CharSequence term) {
+        return estimateHash(TermHash.hash(term));
+    }
+
+    public long estimateHash(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row * width + column(h1, h2, row)]);
+        }
+        return estimate;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        return this;
+    }
+
+    private int column(int h1, int h2, int row) {
+        int h = h1 + row * h2;
+        return (h & Integer.MAX_VALUE) % width;
+    }
+}
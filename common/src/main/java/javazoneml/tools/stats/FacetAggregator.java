@@ -0,0 +1,289 @@
+package javazoneml.tools.stats;
+
+import javazoneml.model.Presentation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Sums measures of presentations grouped by facets, in one pass and into primitive accumulators.
+ * <p>
+ * Every grouping is a set of facets, an empty grouping sums over all presentations. Facet values are
+ * turned into small codes and packed into a long per group, so accumulating a presentation does not
+ * build keys or box counts. Reports are rendered from the {@link Result} once all presentations are
+ * in, and {@link #collector()} can be used on parallel streams, partial results are merged.
+ */
+public class FacetAggregator {
+    private static final int CODE_BITS = 16;
+
+    public enum Facet {
+        YEAR, LANGUAGE, LEVEL, FORMAT;
+
+        private String value(Presentation presentation) {
+            switch (this) {
+                case LANGUAGE:
+                    return presentation.getLanguage();
+                case LEVEL:
+                    return presentation.getLevel();
+                case FORMAT:
+                    return presentation.getFormat();
+                default:
+                    throw new IllegalStateException("Not a string facet: " + this);
+            }
+        }
+    }
+
+    private final List<Facet[]> groupings = new ArrayList<>();
+    private final List<String> measureNames = new ArrayList<>();
+    private final List<ToLongFunction<Presentation>> measures = new ArrayList<>();
+    private final Map<Facet, ConcurrentMap<String, Integer>> codes = new HashMap<>();
+
+    public FacetAggregator() {
+        for (Facet facet : Facet.values()) {
+            codes.put(facet, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Adds a grouping by the given facets, at most four.
+     */
+    public FacetAggregator groupBy(Facet... facets) {
+        if (facets.length * CODE_BITS > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE / CODE_BITS + " facets per grouping");
+        }
+        groupings.add(facets.clone());
+        return this;
+    }
+
+    /**
+     * Adds a measure summed for every group, count presentations with <code>p -&gt; 1</code>.
+     */
+    public FacetAggregator measure(String name, ToLongFunction<Presentation> measure) {
+        measureNames.add(name);
+        measures.add(measure);
+        return this;
+    }
+
+    public Collector<Presentation, Result, Result> collector() {
+        return Collector.of(this::newResult, Result::add, Result::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public Result newResult() {
+        return new Result();
+    }
+
+    /**
+     * Words as counted by <code>input.split(" ").length</code>, without splitting.
+     */
+    public static long wordCount(CharSequence input) {
+        if (input == null)
+            return 0;
+
+        int spaces = 0;
+        for (int i = 0; i < input.length(); i++) {
+            if (input.charAt(i) == ' ')
+                spaces++;
+        }
+        if (spaces == 0)
+            return 1;
+
+        // split drops trailing empty strings, all of them if the input is only spaces
+        int trailing = 0;
+        while (trailing < input.length() && input.charAt(input.length() - 1 - trailing) == ' ')
+            trailing++;
+        return trailing == input.length() ? 0 : spaces + 1 - trailing;
+    }
+
+    private long key(Facet[] facets, Presentation presentation) {
+        long key = 0;
+        for (Facet facet : facets) {
+            key = (key << CODE_BITS) | code(facet, presentation);
+        }
+        return key;
+    }
+
+    private int code(Facet facet, Presentation presentation) {
+        if (facet == Facet.YEAR) {
+            return presentation.getYear() & 0xFFFF;
+        }
+        String value = facet.value(presentation);
+        if (value == null) {
+            return 0;
+        }
+        Map<String, Integer> facetCodes = codes.get(facet);
+        Integer code = facetCodes.get(value);
+        if (code == null) {
+            synchronized (facetCodes) {
+                code = facetCodes.computeIfAbsent(value, v -> facetCodes.size() + 1);
+            }
+            if (code > 0xFFFF) {
+                throw new IllegalStateException("More than " + 0xFFFF + " values of " + facet);
+            }
+        }
+        return code;
+    }
+
+    private String value(Facet facet, int code) {
+        if (facet == Facet.YEAR) {
+            return String.valueOf(code);
+        }
+        for (Map.Entry<String, Integer> entry : codes.get(facet).entrySet()) {
+            if (entry.getValue() == code) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sums of all measures for every group of every grouping.
+     */
+    public class Result {
+        private final Groups[] groups;
+        private final long[] values;
+
+        private Result() {
+            groups = new Groups[groupings.size()];
+            for (int i = 0; i < groups.length; i++) {
+                groups[i] = new Groups(measures.size());
+            }
+            values = new long[measures.size()];
+        }
+
+        public void add(Presentation presentation) {
+            for (int m = 0; m < values.length; m++) {
+                values[m] = measures.get(m).applyAsLong(presentation);
+            }
+            for (int g = 0; g < groups.length; g++) {
+                groups[g].add(key(groupings.get(g), presentation), values);
+            }
+        }
+
+        public Result merge(Result other) {
+            for (int g = 0; g < groups.length; g++) {
+                groups[g].merge(other.groups[g]);
+            }
+            return this;
+        }
+
+        /**
+         * @return the sums of measure <code>measure</code> for the grouping by exactly
+         * <code>facets</code>, keyed by the facet values of each group in facet order
+         */
+        public Map<List<String>, Long> get(String measure, Facet... facets) {
+            int m = measureNames.indexOf(measure);
+            if (m < 0) {
+                throw new IllegalArgumentException("Unknown measure " + measure);
+            }
+            int g = 0;
+            while (g < groupings.size() && !Arrays.equals(groupings.get(g), facets)) {
+                g++;
+            }
+            if (g == groupings.size()) {
+                throw new IllegalArgumentException("No grouping by " + Arrays.toString(facets));
+            }
+
+            Map<List<String>, Long> result = new HashMap<>();
+            Groups group = groups[g];
+            for (int i = 0; i < group.size; i++) {
+                List<String> key = new ArrayList<>(facets.length);
+                long packed = group.keys[i];
+                for (int f = facets.length - 1; f >= 0; f--) {
+                    key.add(value(facets[f], (int) (packed & 0xFFFF)));
+                    packed >>>= CODE_BITS;
+                }
+                Collections.reverse(key);
+                result.put(key, group.sums[i * measureNames.size() + m]);
+            }
+            return result;
+        }
+
+        /**
+         * @return the sum of <code>measure</code> over all presentations, needs an empty grouping
+         */
+        public long getTotal(String measure) {
+            return get(measure).getOrDefault(Collections.<String>emptyList(), 0L);
+        }
+    }
+
+    /**
+     * Group keys in insertion order, found through an open addressing table, with the sums of each
+     * group stored back to back.
+     */
+    private static final class Groups {
+        private final int measures;
+        private long[] keys = new long[16];
+        private long[] sums;
+        private int size;
+        private int[] table = new int[32];
+
+        private Groups(int measures) {
+            this.measures = measures;
+            this.sums = new long[keys.length * measures];
+            Arrays.fill(table, -1);
+        }
+
+        private void add(long key, long[] values) {
+            int offset = group(key) * measures;
+            for (int m = 0; m < measures; m++) {
+                sums[offset + m] += values[m];
+            }
+        }
+
+        private void merge(Groups other) {
+            for (int i = 0; i < other.size; i++) {
+                int offset = group(other.keys[i]) * measures;
+                for (int m = 0; m < measures; m++) {
+                    sums[offset + m] += other.sums[i * measures + m];
+                }
+            }
+        }
+
+        private int group(long key) {
+            int mask = table.length - 1;
+            int slot = hash(key) & mask;
+            while (table[slot] >= 0) {
+                if (keys[table[slot]] == key) {
+                    return table[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                sums = Arrays.copyOf(sums, keys.length * measures);
+            }
+            keys[size] = key;
+            table[slot] = size;
+            if (++size * 2 > table.length) {
+                rehash();
+            }
+            return size - 1;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for (int i = 0; i < size; i++) {
+                int slot = hash(keys[i]) & mask;
+                while (table[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = i;
+            }
+        }
+
+        private static int hash(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package javazoneml.tools.stats;
+
+import com.google.common.hash.Hashing;
+import javazoneml.tools.preprocessing.TermDictionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TF-IDF that is kept up to date as documents are added and removed, with the same values as
+ * {@link TfIdfIndex}.
+ * <p>
+ * For every term it keeps the document frequency, the number of occurrences C and the sum S of
+ * count * tf over the documents holding it. The average TF-IDF of a term over its occurrences is then
+ * S / C * log10(N / df), so adding or removing a document only touches the terms of that document.
+ * <p>
+ * Documents are identified by a key and carry a {@link #digest(CharSequence) digest} of their content,
+ * so a caller can tell which documents changed since the state was saved. Not thread-safe.
+ */
+public class IncrementalTfIdf {
+    static final int MAGIC = 0x4A5A5449; // "JZTI"
+    static final int VERSION = 1;
+
+    private final TermDictionary dictionary;
+    private final Map<String, Document> documents = new HashMap<>();
+    private double[] weightedSums = new double[1024];
+    private long[] occurrences = new long[1024];
+    private int[] documentFrequencies = new int[1024];
+
+    public IncrementalTfIdf() {
+        this(new TermDictionary());
+    }
+
+    /**
+     * @param dictionary the dictionary the ids of added documents come from
+     */
+    public IncrementalTfIdf(TermDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public TermDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int getDocumentCount() {
+        return documents.size();
+    }
+
+    public boolean contains(String key) {
+        return documents.containsKey(key);
+    }
+
+    /**
+     * @return the SHA-256 of the content as hex digits
+     */
+    public static String digest(CharSequence content) {
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * @return whether the document is in the index with this content digest
+     */
+    public boolean isCurrent(String key, String contentDigest) {
+        Document document = documents.get(key);
+        return document != null && contentDigest.equals(document.contentDigest);
+    }
+
+    /**
+     * Adds a document with the given token ids, replacing the document with the same key.
+     */
+    public void add(String key, String contentDigest, int[] ids) {
+        remove(key);
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        int[] terms = new int[distinct];
+        int[] counts = new int[distinct];
+        int entry = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                terms[++entry] = sorted[i];
+            }
+            counts[entry]++;
+        }
+        Document document = new Document(contentDigest, sorted.length, terms, counts);
+        documents.put(key, document);
+        update(document, 1);
+    }
+
+    /**
+     * @return whether there was a document with this key
+     */
+    public boolean remove(String key) {
+        Document document = documents.remove(key);
+        if (document == null) {
+            return false;
+        }
+        update(document, -1);
+        return true;
+    }
+
+    /**
+     * Removes all documents whose key is not in <code>keys</code>.
+     *
+     * @return the number of removed documents
+     */
+    public int retainAll(Set<String> keys) {
+        List<String> removed = new ArrayList<>();
+        for (String key : documents.keySet()) {
+            if (!keys.contains(key)) {
+                removed.add(key);
+            }
+        }
+        removed.forEach(this::remove);
+        return removed.size();
+    }
+
+    private void update(Document document, int sign) {
+        ensureCapacity(dictionary.size());
+        for (int i = 0; i < document.terms.length; i++) {
+            int term = document.terms[i];
+            int count = document.counts[i];
+            weightedSums[term] += sign * ((double) count * count / document.length);
+            occurrences[term] += sign * count;
+            documentFrequencies[term] += sign;
+            if (documentFrequencies[term] == 0) {
+                // no rounding residue left behind by removed documents
+                weightedSums[term] = 0;
+            }
+        }
+    }
+
+    private void ensureCapacity(int terms) {
+        if (terms > weightedSums.length) {
+            int capacity = Math.max(terms, weightedSums.length * 2);
+            weightedSums = Arrays.copyOf(weightedSums, capacity);
+            occurrences = Arrays.copyOf(occurrences, capacity);
+            documentFrequencies = Arrays.copyOf(documentFrequencies, capacity);
+        }
+    }
+
+    public int getDocumentFrequency(int term) {
+        return term < documentFrequencies.length ? documentFrequencies[term] : 0;
+    }
+
+    /**
+     * @return the TF-IDF of the term averaged over its occurrences, NaN if it is in no document
+     */
+    public double getAverageTfIdf(int term) {
+        if (getDocumentFrequency(term) == 0) {
+            return Double.NaN;
+        }
+        double idf = Math.log10((double) documents.size() / documentFrequencies[term]);
+        return weightedSums[term] / occurrences[term] * idf;
+    }
+
+    /**
+     * {@link #getAverageTfIdf(int)} keyed by term, for the terms in the index.
+     */
+    public HashMap<String, Double> getAverageTfIdfByTerm() {
+        HashMap<String, Double> result = new HashMap<>();
+        int terms = Math.min(dictionary.size(), documentFrequencies.length);
+        for (int term = 0; term < terms; term++) {
+            if (documentFrequencies[term] > 0) {
+                result.put(dictionary.term(term), getAverageTfIdf(term));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the terms and documents, the per term sums are rebuilt from the documents by {@link #load(Path)}.
+     */
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            int terms = dictionary.size();
+            out.writeInt(terms);
+            for (int term = 0; term < terms; term++) {
+                out.writeUTF(dictionary.term(term));
+            }
+            out.writeInt(documents.size());
+            for (Map.Entry<String, Document> entry : documents.entrySet()) {
+                Document document = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeUTF(document.contentDigest == null ? "" : document.contentDigest);
+                out.writeInt(document.length);
+                out.writeInt(document.terms.length);
+                for (int i = 0; i < document.terms.length; i++) {
+                    out.writeInt(document.terms[i]);
+                    out.writeInt(document.counts[i]);
+                }
+            }
+        }
+    }
+
+    public static IncrementalTfIdf load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a TF-IDF state file (version " + VERSION + "): " + file);
+            }
+            int terms = in.readInt();
+            TermDictionary dictionary = new TermDictionary(terms);
+            for (int term = 0; term < terms; term++) {
+                dictionary.id(in.readUTF());
+            }
+            IncrementalTfIdf index = new IncrementalTfIdf(dictionary);
+            int count = in.readInt();
+            for (int n = 0; n < count; n++) {
+                String key = in.readUTF();
+                String digest = in.readUTF();
+                String contentDigest = digest.isEmpty() ? null : digest;
+                int length = in.readInt();
+                int distinct = in.readInt();
+                int[] documentTerms = new int[distinct];
+                int[] counts = new int[distinct];
+                for (int i = 0; i < distinct; i++) {
+                    documentTerms[i] = in.readInt();
+                    counts[i] = in.readInt();
+                }
+                Document document = new Document(contentDigest, length, documentTerms, counts);
+                index.documents.put(key, document);
+                index.update(document, 1);
+            }
+            return index;
+        }
+    }
+
+    private static final class Document {
+        private final String contentDigest;
+        private final int length;
+        private final int[] terms;
+        private final int[] counts;
+
+        private Document(String contentDigest, int length, int[] terms, int[] counts) {
+            this.contentDigest = contentDigest;
+            this.length = length;
+            this.terms = terms;
+            this.counts = counts;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package javazoneml.tools.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A uniform random sample of at most <code>size</code> items from a stream of unknown length.
+ * <p>
+ * Samples can be merged: every item of the merged sample stands for the same share of the items seen
+ * by both samples together.
+ */
+public class ReservoirSample<T> {
+    private final int size;
+    private final Random random;
+    private final List<T> items;
+    private long seen;
+
+    public ReservoirSample(int size) {
+        this(size, new Random());
+    }
+
+    public ReservoirSample(int size, Random random) {
+        this.size = size;
+        this.random = random;
+        this.items = new ArrayList<>(size);
+    }
+
+    public void add(T item) {
+        seen++;
+        if (items.size() < size) {
+            items.add(item);
+        } else {
+            long slot = (long) (random.nextDouble() * seen);
+            if (slot < size) {
+                items.set((int) slot, item);
+            }
+        }
+    }
+
+    public long getSeen() {
+        return seen;
+    }
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public ReservoirSample<T> merge(ReservoirSample<T> other) {
+        List<T> mine = new ArrayList<>(items);
+        List<T> theirs = new ArrayList<>(other.items);
+        Collections.shuffle(mine, random);
+        Collections.shuffle(theirs, random);
+        // weight of one sampled item: the number of seen items it stands for
+        double myWeight = mine.isEmpty() ? 0 : (double) seen / mine.size();
+        double theirWeight = theirs.isEmpty() ? 0 : (double) other.seen / theirs.size();
+
+        items.clear();
+        int i = 0;
+        int j = 0;
+        while (items.size() < size && (i < mine.size() || j < theirs.size())) {
+            double mineLeft = (mine.size() - i) * myWeight;
+            double theirsLeft = (theirs.size() - j) * theirWeight;
+            if (random.nextDouble() * (mineLeft + theirsLeft) < mineLeft) {
+                items.add(mine.get(i++));
+            } else {
+                items.add(theirs.get(j++));
+            }
+        }
+        seen += other.seen;
+        return this;
+    }
+}
@@ -0,0 +1,31 @@
+package javazoneml.tools.stats;
+
+/**
+ * 64 bit hashes of lower-cased terms, shared by the sketches so a term is hashed once per occurrence.
+ */
+final class TermHash {
+
+    private TermHash() {
+    }
+
+    static long hash(CharSequence text, int start, int end) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = start; i < end; i++) {
+            h = (h ^ Character.toLowerCase(text.charAt(i))) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    static long hash(CharSequence text) {
+        return hash(text, 0, text.length());
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,149 @@
+package javazoneml.tools.stats;
+
+import javazoneml.tools.preprocessing.TermDictionary;
+import javazoneml.tools.preprocessing.TokenizedCorpus;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.stream.IntStream;
+
+/**
+ * TF-IDF over a tokenized corpus, built in time linear in its size.
+ * <p>
+ * Every document is stored as a sparse term frequency vector, the distinct terms of all documents
+ * back to back with their counts. The same entries are also reachable per term through an inverted
+ * index, which gives the document frequencies without scanning the corpus for every term.
+ * <p>
+ * tf is the count of the term divided by the length of the document, idf is log10(N / df).
+ */
+public class TfIdfIndex {
+    private final TermDictionary dictionary;
+    private final int documentCount;
+    private final int termCount;
+
+    // sparse document vectors: entries documentOffsets[d] until documentOffsets[d + 1]
+    private final int[] documentOffsets;
+    private final int[] documentLengths;
+    private final int[] entryTerms;
+    private final int[] entryCounts;
+    private final double[] entryTfIdf;
+
+    // inverted index: entries of term t are postingEntries[postingOffsets[t]] until postingOffsets[t + 1]
+    private final int[] postingOffsets;
+    private final int[] postingEntries;
+
+    public TfIdfIndex(TokenizedCorpus corpus) {
+        this.dictionary = corpus.getDictionary();
+        this.documentCount = corpus.size();
+        this.termCount = dictionary.size();
+
+        documentOffsets = new int[documentCount + 1];
+        documentLengths = new int[documentCount];
+        int[] terms = new int[0];
+        int[] counts = new int[0];
+        int entries = 0;
+        for (int document = 0; document < documentCount; document++) {
+            int[] ids = corpus.document(document);
+            Arrays.sort(ids);
+            documentLengths[document] = ids.length;
+            if (entries + ids.length > terms.length) {
+                terms = Arrays.copyOf(terms, Math.max(terms.length * 2, entries + ids.length));
+                counts = Arrays.copyOf(counts, terms.length);
+            }
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    terms[entries] = ids[i];
+                    counts[entries++] = 1;
+                } else {
+                    counts[entries - 1]++;
+                }
+            }
+            documentOffsets[document + 1] = entries;
+        }
+        entryTerms = Arrays.copyOf(terms, entries);
+        entryCounts = Arrays.copyOf(counts, entries);
+
+        // every document holds a term once, so the postings of a term are its document frequency
+        postingOffsets = new int[termCount + 1];
+        for (int entry = 0; entry < entries; entry++) {
+            postingOffsets[entryTerms[entry] + 1]++;
+        }
+        for (int term = 0; term < termCount; term++) {
+            postingOffsets[term + 1] += postingOffsets[term];
+        }
+        postingEntries = new int[entries];
+        int[] next = Arrays.copyOf(postingOffsets, termCount);
+        for (int entry = 0; entry < entries; entry++) {
+            postingEntries[next[entryTerms[entry]]++] = entry;
+        }
+
+        entryTfIdf = new double[entries];
+        IntStream.range(0, documentCount).parallel().forEach(document -> {
+            for (int entry = documentOffsets[document]; entry < documentOffsets[document + 1]; entry++) {
+                double tf = (double) entryCounts[entry] / documentLengths[document];
+                entryTfIdf[entry] = tf * idf(entryTerms[entry]);
+            }
+        });
+    }
+
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    public int getDocumentFrequency(int term) {
+        return postingOffsets[term + 1] - postingOffsets[term];
+    }
+
+    public double idf(int term) {
+        return Math.log10((double) documentCount / getDocumentFrequency(term));
+    }
+
+    /**
+     * @return the distinct terms of <code>document</code>, in id order
+     */
+    public int[] getTerms(int document) {
+        return Arrays.copyOfRange(entryTerms, documentOffsets[document], documentOffsets[document + 1]);
+    }
+
+    /**
+     * @return the TF-IDF of the terms of <code>document</code>, in the order of {@link #getTerms(int)}
+     */
+    public double[] getTfIdf(int document) {
+        return Arrays.copyOfRange(entryTfIdf, documentOffsets[document], documentOffsets[document + 1]);
+    }
+
+    /**
+     * The TF-IDF of every term averaged over all its occurrences, a term occurring twice in a
+     * document counts that document's TF-IDF twice.
+     *
+     * @return the average per term id, NaN for terms that are not in the corpus
+     */
+    public double[] getAverageTfIdf() {
+        double[] averages = new double[termCount];
+        IntStream.range(0, termCount).parallel().forEach(term -> {
+            double sum = 0;
+            long occurrences = 0;
+            for (int posting = postingOffsets[term]; posting < postingOffsets[term + 1]; posting++) {
+                int entry = postingEntries[posting];
+                sum += entryCounts[entry] * entryTfIdf[entry];
+                occurrences += entryCounts[entry];
+            }
+            averages[term] = occurrences == 0 ? Double.NaN : sum / occurrences;
+        });
+        return averages;
+    }
+
+    /**
+     * {@link #getAverageTfIdf()} keyed by term, for the terms in the corpus.
+     */
+    public HashMap<String, Double> getAverageTfIdfByTerm() {
+        double[] averages = getAverageTfIdf();
+        HashMap<String, Double> result = new HashMap<>();
+        for (int term = 0; term < termCount; term++) {
+            if (!Double.isNaN(averages[term])) {
+                result.put(dictionary.term(term), averages[term]);
+            }
+        }
+        return result;
+    }
+}
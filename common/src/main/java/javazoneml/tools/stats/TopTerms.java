@@ -0,0 +1,99 @@
+package javazoneml.tools.stats;
+
+import java.util.ArrayList;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The k most frequent terms, estimated with a {@link CountMinSketch} and a min-heap of candidates.
+ * Only terms that enter the heap are turned into Strings, every other occurrence costs a hash and a
+ * sketch update.
+ * <p>
+ * Instances with the same k and sketch dimensions can be merged.
+ */
+public class TopTerms {
+    private final int k;
+    private final CountMinSketch sketch;
+    private final Map<Long, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(c -> c.estimate));
+
+    public TopTerms(int k) {
+        this(k, 2048, 4);
+    }
+
+    public TopTerms(int k, int width, int depth) {
+        this.k = k;
+        this.sketch = new CountMinSketch(width, depth);
+    }
+
+    public void add(CharSequence text, int start, int end) {
+        long hash = TermHash.hash(text, start, end);
+        sketch.addHash(hash, 1);
+        offer(hash, sketch.estimateHash(hash), text, start, end);
+    }
+
+    public void add(CharSequence term) {
+        add(term, 0, term.length());
+    }
+
+    private void offer(long hash, long estimate, CharSequence text, int start, int end) {
+        if (heap.size() == k && estimate <= heap.peek().estimate) {
+            return;
+        }
+        Candidate candidate = candidates.get(hash);
+        if (candidate != null) {
+            heap.remove(candidate);
+        } else {
+            StringBuilder term = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                term.append(Character.toLowerCase(text.charAt(i)));
+            }
+            candidate = new Candidate(hash, term.toString());
+            candidates.put(hash, candidate);
+        }
+        candidate.estimate = estimate;
+        heap.add(candidate);
+        if (heap.size() > k) {
+            candidates.remove(heap.poll().hash);
+        }
+    }
+
+    public TopTerms merge(TopTerms other) {
+        sketch.merge(other.sketch);
+        List<Candidate> all = new ArrayList<>(candidates.values());
+        all.addAll(other.candidates.values());
+        candidates.clear();
+        heap.clear();
+        for (Candidate candidate : all) {
+            offer(candidate.hash, sketch.estimateHash(candidate.hash), candidate.term, 0, candidate.term.length());
+        }
+        return this;
+    }
+
+    /**
+     * @return the top terms with their estimated counts, most frequent first
+     */
+    public List<Map.Entry<String, Long>> getTop() {
+        List<Map.Entry<String, Long>> top = new ArrayList<>();
+        for (Candidate candidate : heap) {
+            top.add(new AbstractMap.SimpleImmutableEntry<>(candidate.term, sketch.estimateHash(candidate.hash)));
+        }
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return top;
+    }
+
+    private static final class Candidate {
+        private final long hash;
+        private final String term;
+        private long estimate;
+
+        private Candidate(long hash, String term) {
+            this.hash = hash;
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package javazoneml.tools.stats;
+
+import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
+import javazoneml.tools.data.DataFilter;
+import javazoneml.tools.preprocessing.StopWordSet;
+import javazoneml.tools.preprocessing.StopWords;
+import javazoneml.tools.preprocessing.Tokenizer;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vocabulary stats per year and language: the number of distinct terms, the most frequent terms and
+ * a sample of talk titles.
+ * <p>
+ * By default these are estimated with sketches of fixed size ({@link HyperLogLog}, {@link TopTerms}
+ * and {@link ReservoirSample}), so memory does not grow with the corpus. Pass --exact to count with
+ * plain collections instead, which is affordable for the bundled data set.
+ */
+public class VocabularyStats {
+    public static final int TOP_TERMS = 10;
+    public static final int SAMPLE_SIZE = 3;
+
+    private static final StopWordSet noStopWords = StopWordSet.of(StopWords.NO, StopWords.NO_SPECIFIC);
+    private static final StopWordSet enStopWords = StopWordSet.of(StopWords.EN, StopWords.EN_SPECIFIC);
+
+    private final boolean exact;
+
+    public VocabularyStats(boolean exact) {
+        this.exact = exact;
+    }
+
+    public static void main(String[] args) {
+        new VocabularyStats(Arrays.asList(args).contains("--exact")).printVocabularyStats();
+    }
+
+    public void printVocabularyStats() {
+        CorpusSnapshot corpus = CorpusSnapshot.getInstance();
+        List<Predicate<Presentation>> excludes = new ArrayList<>();
+        excludes.addAll(DataFilter.EXCLUDES);
+        excludes.add(p -> (p.getSummary() == null) && (p.getDescription() == null));
+
+        Map<String, Group> groups;
+        try (Stream<Presentation> presentations = corpus.stream(excludes)) {
+            groups = presentations.parallel().collect(collector());
+        }
+
+        System.out.println("=== Vocabulary stats" + (exact ? "" : " (estimated)") + " ===");
+        groups.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            Group group = entry.getValue();
+            System.out.println(entry.getKey() + " distinct=" + group.getDistinctTerms());
+            System.out.println("  top: " + group.getTopTerms().stream()
+                    .map(term -> term.getKey() + " (" + term.getValue() + ")")
+                    .collect(Collectors.joining(", ")));
+            System.out.println("  sample: " + String.join(" | ", group.getSample()));
+        });
+        System.out.println("---------------------");
+    }
+
+    /**
+     * Groups presentations by year and language, partial results of parallel streams are merged.
+     */
+    public Collector<Presentation, Map<String, Group>, Map<String, Group>> collector() {
+        return Collector.of(HashMap::new, this::add, this::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    private void add(Map<String, Group> groups, Presentation presentation) {
+        String key = presentation.getYear() + " (" + presentation.getLanguage() + ")";
+        Group group = groups.computeIfAbsent(key, k -> exact ? new ExactGroup() : new SketchGroup());
+        StopWordSet stopWords = "no".equalsIgnoreCase(presentation.getLanguage()) ? noStopWords : enStopWords;
+        for (String text : Arrays.asList(presentation.getTitle(), presentation.getSummary(), presentation.getDescription())) {
+            if (text == null)
+                continue;
+            Tokenizer.WORDS.tokenize(text, (t, start, end) -> {
+                if (!stopWords.contains(t, start, end))
+                    group.addTerm(t, start, end);
+            });
+        }
+        group.addDocument(presentation.getTitle());
+    }
+
+    private Map<String, Group> merge(Map<String, Group> groups, Map<String, Group> other) {
+        other.forEach((key, group) -> groups.merge(key, group, Group::merge));
+        return groups;
+    }
+
+    public interface Group {
+        void addTerm(CharSequence text, int start, int end);
+
+        void addDocument(String title);
+
+        Group merge(Group other);
+
+        long getDistinctTerms();
+
+        List<Map.Entry<String, Long>> getTopTerms();
+
+        List<String> getSample();
+    }
+
+    private static class SketchGroup implements Group {
+        private final HyperLogLog distinct = new HyperLogLog();
+        private final TopTerms top = new TopTerms(TOP_TERMS);
+        private final ReservoirSample<String> sample = new ReservoirSample<>(SAMPLE_SIZE);
+
+        @Override
+        public void addTerm(CharSequence text, int start, int end) {
+            distinct.add(text, start, end);
+            top.add(text, start, end);
+        }
+
+        @Override
+        public void addDocument(String title) {
+            sample.add(title);
+        }
+
+        @Override
+        public Group merge(Group other) {
+            SketchGroup group = (SketchGroup) other;
+            distinct.merge(group.distinct);
+            top.merge(group.top);
+            sample.merge(group.sample);
+            return this;
+        }
+
+        @Override
+        public long getDistinctTerms() {
+            return distinct.cardinality();
+        }
+
+        @Override
+        public List<Map.Entry<String, Long>> getTopTerms() {
+            return top.getTop();
+        }
+
+        @Override
+        public List<String> getSample() {
+            return sample.getItems();
+        }
+    }
+
+    private static class ExactGroup implements Group {
+        private final HashMap<String, Long> counts = new HashMap<>();
+        private final List<String> titles = new ArrayList<>();
+
+        @Override
+        public void addTerm(CharSequence text, int start, int end) {
+            counts.merge(text.subSequence(start, end).toString().toLowerCase(), 1L, Long::sum);
+        }
+
+        @Override
+        public void addDocument(String title) {
+            titles.add(title);
+        }
+
+        @Override
+        public Group merge(Group other) {
+            ExactGroup group = (ExactGroup) other;
+            group.counts.forEach((term, count) -> counts.merge(term, count, Long::sum));
+            titles.addAll(group.titles);
+            return this;
+        }
+
+        @Override
+        public long getDistinctTerms() {
+            return counts.size();
+        }
+
+        @Override
+        public List<Map.Entry<String, Long>> getTopTerms() {
+            return counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(TOP_TERMS)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * The first titles, there is no need to sample randomly when counting exactly.
+         */
+        @Override
+        public List<String> getSample() {
+            return titles.subList(0, Math.min(SAMPLE_SIZE, titles.size()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+import javazoneml.model.Speaker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BinaryCorpusTest {
+    private BinaryCorpus corpus;
+
+    @Before
+    public void setUp() throws IOException {
+        Presentation presentation1 = new Presentation();
+        presentation1.setTitle("Java er kult!");
+        presentation1.setLanguage("no");
+        presentation1.setLevel("beginner");
+        presentation1.setSummary("Om Java – på norsk");
+        presentation1.setKeyWords(Arrays.asList("java", "jvm"));
+        presentation1.setYear(2010);
+        Speaker speaker1 = new Speaker();
+        speaker1.setName("Jens Jensen");
+        speaker1.setBiography("Utvikler");
+        presentation1.setSpeakers(Collections.singletonList(speaker1));
+
+        Presentation presentation2 = new Presentation();
+        presentation2.setTitle("I Love Hibernate");
+        presentation2.setLanguage("en");
+        presentation2.setLevel("beginner");
+        presentation2.setYear(2011);
+        presentation2.setSpeakers(new ArrayList<>());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryCorpusWriter().write(Arrays.asList(presentation1, presentation2), out);
+        corpus = new BinaryCorpus(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    @Test
+    public void roundTrip() {
+        Assert.assertEquals(2, corpus.size());
+
+        Presentation presentation = corpus.get(0);
+        Assert.assertEquals("Java er kult!", presentation.getTitle());
+        Assert.assertEquals("Om Java – på norsk", presentation.getSummary());
+        Assert.assertNull(presentation.getDescription());
+        Assert.assertEquals(Arrays.asList("java", "jvm"), presentation.getKeyWords());
+        Assert.assertEquals(2010, presentation.getYear());
+        Assert.assertEquals("Jens Jensen", presentation.getSpeakers().get(0).getName());
+        Assert.assertEquals("Utvikler", presentation.getSpeakers().get(0).getBiography());
+
+        presentation = corpus.get(1);
+        Assert.assertEquals("en", presentation.getLanguage());
+        Assert.assertNull(presentation.getKeyWords());
+        Assert.assertTrue(presentation.getSpeakers().isEmpty());
+    }
+
+    @Test
+    public void decodesOnce() {
+        Assert.assertSame(corpus.get(0), corpus.get(0));
+    }
+
+    @Test
+    public void getByYear() {
+        List<Presentation> presentations = corpus.getByYear(2011);
+        Assert.assertEquals(1, presentations.size());
+        Assert.assertEquals("I Love Hibernate", presentations.get(0).getTitle());
+    }
+}
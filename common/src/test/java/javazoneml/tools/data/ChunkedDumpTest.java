@@ -0,0 +1,70 @@
+package javazoneml.tools.data;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class ChunkedDumpTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private String file;
+    private List<String> documents = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        file = folder.newFile("dump.gz").getPath();
+        for (int i = 0; i < 100; i++) {
+            documents.add("Dokument nummer " + i + " – æøå\n");
+        }
+        try (ChunkedDumpWriter writer = new ChunkedDumpWriter(file, 256)) {
+            for (String document : documents) {
+                writer.write(document);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomAccess() throws IOException {
+        try (ChunkedDumpReader reader = new ChunkedDumpReader(file)) {
+            Assert.assertEquals(100, reader.size());
+            Assert.assertEquals(documents.get(0), reader.get(0));
+            Assert.assertEquals(documents.get(57), reader.get(57));
+            Assert.assertEquals(documents.get(99), reader.get(99));
+            Assert.assertEquals(documents.subList(10, 40), reader.get(10, 40));
+        }
+    }
+
+    @Test
+    public void testDataIsPlainGzip() throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            Assert.assertEquals(String.join("\n", documents) + "\n", IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testMatchesPlainDump() throws IOException {
+        String plain = folder.getRoot().toPath().resolve("en-all.txt").toString();
+        String chunked = folder.getRoot().toPath().resolve("en-all-chunked.txt").toString();
+        new DumpContent().dumpContent(Arrays.asList(
+                new DumpContent.Target(plain, true, true, Collections.singletonList("en")),
+                new DumpContent.Target(chunked, true, true, Collections.singletonList("en")).chunked()));
+
+        try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(chunked + ".gz"))) {
+            Assert.assertArrayEquals(Files.readAllBytes(Paths.get(plain)), IOUtils.toByteArray(in));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+import javazoneml.model.Speaker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class CorpusIndexTest {
+    private Presentation presentation1, presentation2, presentation3;
+    private CorpusIndex index;
+
+    @Before
+    public void setUp() {
+        presentation1 = presentation("Java er kult!", "no", 2009, "Jens Jensen", "java");
+        presentation2 = presentation("Lambdas in depth", "en", 2012, "Lisa Simpson", "Java", "lambda");
+        presentation3 = presentation("I Love Hibernate", "en", 2015, "Lisa Simpson", "persistence");
+        index = new CorpusIndex(Arrays.asList(presentation1, presentation2, presentation3));
+    }
+
+    @Test
+    public void testLanguageAndYearRange() {
+        List<Presentation> result = index.query().language("en").years(2010, 2015).list();
+        Assert.assertEquals(Arrays.asList(presentation2, presentation3), result);
+    }
+
+    @Test
+    public void testKeywordIgnoresCase() {
+        List<Presentation> result = index.query().keyword("java").list();
+        Assert.assertEquals(Arrays.asList(presentation1, presentation2), result);
+    }
+
+    @Test
+    public void testValuesOfOneFacetAreUnion() {
+        Assert.assertEquals(3, index.query().language("en", "no").count());
+    }
+
+    @Test
+    public void testUnknownValueMatchesNothing() {
+        Assert.assertEquals(0, index.query().speaker("Lisa Simpson").year(2003).count());
+    }
+
+    @Test
+    public void testExcludes() {
+        List<Presentation> result = index.query().speaker("Lisa Simpson")
+                .list(Collections.singletonList(p -> p.getYear() == 2015));
+        Assert.assertEquals(Collections.singletonList(presentation2), result);
+    }
+
+    private static Presentation presentation(String title, String language, int year, String speakerName,
+                                             String... keywords) {
+        Presentation presentation = new Presentation();
+        presentation.setTitle(title);
+        presentation.setLanguage(language);
+        presentation.setYear(year);
+        presentation.setKeyWords(Arrays.asList(keywords));
+        Speaker speaker = new Speaker();
+        speaker.setName(speakerName);
+        presentation.setSpeakers(Collections.singletonList(speaker));
+        return presentation;
+    }
+}
@@ -0,0 +1,39 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+import javazoneml.model.Speaker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CorpusInternerTest {
+
+    @Test
+    public void testValuesAndSpeakersAreShared() {
+        CorpusInterner interner = new CorpusInterner();
+        Presentation presentation1 = interner.intern(presentation("Lisa Simpson", "Jazz musician"));
+        Presentation presentation2 = interner.intern(presentation("Lisa Simpson", "Jazz musician"));
+        Presentation presentation3 = interner.intern(presentation("Lisa Simpson", "Saxophonist"));
+
+        Assert.assertSame(presentation1.getLanguage(), presentation2.getLanguage());
+        Assert.assertSame(presentation1.getKeyWords().get(0), presentation2.getKeyWords().get(0));
+        Assert.assertSame(presentation1.getDescription(), presentation2.getDescription());
+        Assert.assertSame(presentation1.getSpeakers().get(0), presentation2.getSpeakers().get(0));
+        Assert.assertNotSame(presentation1.getSpeakers().get(0), presentation3.getSpeakers().get(0));
+        Assert.assertEquals(2, interner.getSpeakerCount());
+    }
+
+    private static Presentation presentation(String name, String biography) {
+        Presentation presentation = new Presentation();
+        presentation.setLanguage(new String("en"));
+        presentation.setDescription(new String("Same description"));
+        presentation.setKeyWords(Arrays.asList(new String("java"), new String("jvm")));
+        Speaker speaker = new Speaker();
+        speaker.setName(new String(name));
+        speaker.setBiography(new String(biography));
+        presentation.setSpeakers(Collections.singletonList(speaker));
+        return presentation;
+    }
+}
@@ -0,0 +1,50 @@
+package javazoneml.tools.data;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+public class CorpusShardsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private CorpusShards shards;
+
+    @Before
+    public void setUp() throws IOException {
+        write("javazone-2015.json", "[{\"title\": \"A\", \"year\": 2015}, {\"title\": \"B\", \"year\": 2015}]");
+        write("meetup-2015-oslo.json", "[{\"title\": \"C\", \"year\": 2015}]");
+        write("meetup-2016.json", "[{\"title\": \"D\", \"year\": 2016}]");
+        write("notes.txt", "not a shard");
+        shards = new CorpusShards(folder.getRoot().getPath());
+    }
+
+    @Test
+    public void testDiscovery() {
+        Assert.assertEquals(Arrays.asList(2015, 2016), Arrays.asList(shards.getYears().toArray()));
+        Assert.assertEquals(2, shards.get(2015).size());
+        Assert.assertEquals(Collections.emptyList(), shards.get(2014));
+        Assert.assertFalse(shards.isDefaultSource());
+    }
+
+    @Test
+    public void testProviderReadsAllShardsOfYear() {
+        DataProvider provider = new DataProvider(shards, true, ForkJoinPool.commonPool());
+        Assert.assertEquals(3, provider.get(2015).size());
+        Assert.assertEquals(1, provider.get(2016, 2020).size());
+        Assert.assertEquals(4, provider.getAll().size());
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.write(new File(folder.getRoot(), name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
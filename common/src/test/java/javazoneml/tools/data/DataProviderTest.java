@@ -4,8 +4,13 @@ import javazoneml.model.Presentation;
 import javazoneml.model.Speaker;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -13,6 +18,9 @@ import java.util.List;
 import java.util.function.Predicate;
 
 public class DataProviderTest extends DataProvider{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private Presentation presentation1, presentation2, presentation3;
 
     @Before
@@ -69,6 +77,26 @@ public class DataProviderTest extends DataProvider{
         Assert.assertTrue(filteredPresentations.contains(presentation1));
     }
 
+    @Test
+    public void testYearIsReadOnce(){
+        List<Presentation> presentations = get(2010);
+        Assert.assertFalse(presentations.isEmpty());
+        Assert.assertSame(presentations, get(2010));
+    }
+
+    @Test
+    public void testSnapshotOutdatedByNewerJson() throws IOException {
+        File snapshot = folder.newFile("javazone.corpus");
+        File json = folder.newFile("javazone-2016.json");
+        snapshot.setLastModified(1_000_000_000_000L);
+        json.setLastModified(1_000_000_000_000L);
+        Assert.assertFalse(isOutdated(snapshot.toURI().toURL(), Collections.singletonList(json.toURI().toURL())));
+
+        json.setLastModified(1_000_000_060_000L);
+        Assert.assertTrue(isOutdated(snapshot.toURI().toURL(), Collections.singletonList(json.toURI().toURL())));
+        Assert.assertFalse(isOutdated(new URL("jar:" + snapshot.toURI() + "!/data/javazone.corpus"),
+                Collections.singletonList(json.toURI().toURL())));
+    }
 
     @Override
     public List<Presentation> getAll(){
@@ -0,0 +1,30 @@
+package javazoneml.tools.data;
+
+import javazoneml.model.Presentation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExclusionSetTest {
+
+    @Test
+    public void testDefaultExclusionsAreLoaded() {
+        Assert.assertEquals(14, DataFilter.EXCLUDED_PRESENTATIONS.size());
+        Assert.assertTrue(DataFilter.EXCLUDED_PRESENTATIONS.test(presentation(" Scaling to Billions", 2012)));
+    }
+
+    @Test
+    public void testYearIsPartOfKey() {
+        ExclusionSet exclusions = new ExclusionSet();
+        exclusions.add(2012, "Scaling to billions");
+        Assert.assertTrue(exclusions.test(presentation("Scaling to billions", 2012)));
+        Assert.assertFalse(exclusions.test(presentation("Scaling to billions", 2013)));
+        Assert.assertFalse(exclusions.test(presentation(null, 2012)));
+    }
+
+    private static Presentation presentation(String title, int year) {
+        Presentation presentation = new Presentation();
+        presentation.setTitle(title);
+        presentation.setYear(year);
+        return presentation;
+    }
+}
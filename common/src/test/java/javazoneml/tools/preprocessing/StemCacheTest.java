@@ -0,0 +1,70 @@
+package javazoneml.tools.preprocessing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StemCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        StemCache cache = new StemCache(100);
+        Assert.assertEquals("meet", cache.stem("meetings"));
+        Assert.assertEquals("meet", cache.stem("meetings"));
+        Assert.assertEquals("meet", cache.stem("meetings"));
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testUnchangedWordIsReturned() {
+        StemCache cache = new StemCache(100);
+        String word = new String("java");
+        Assert.assertSame(word, cache.stem(word));
+    }
+
+    @Test
+    public void testBounded() {
+        StemCache cache = new StemCache(10);
+        for (int i = 0; i < 100; i++) {
+            cache.stem("word" + i + "ings");
+        }
+        Assert.assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        StemCache cache = new StemCache(1000);
+        String[] words = {"ponies", "meetings", "relational", "hopefulness", "generalizations"};
+        String[] expected = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            expected[i] = new Stemmer().stem(words[i]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int n = 0; n < 1000; n++) {
+                        int i = n % words.length;
+                        if (!expected[i].equals(cache.stem(words[i]))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package javazoneml.tools.preprocessing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StemmerTest {
+
+    @Test
+    public void testStemString() {
+        Stemmer stemmer = new Stemmer();
+        Assert.assertEquals("poni", stemmer.stem("ponies"));
+        Assert.assertEquals("meet", stemmer.stem("meetings"));
+        Assert.assertEquals("relat", stemmer.stem("relational"));
+    }
+
+    @Test
+    public void testStemRangeIntoBuffer() {
+        char[] text = "the hopefulness of meetings".toCharArray();
+        char[] stem = new char[text.length];
+        int length = Stemmer.forCurrentThread().stem(text, 4, 11, stem, 2);
+        Assert.assertEquals("hope", new String(stem, 2, length));
+
+        length = Stemmer.forCurrentThread().stem("the hopefulness of meetings", 19, 27, stem, 0);
+        Assert.assertEquals("meet", new String(stem, 0, length));
+    }
+
+    @Test
+    public void testLongWordGrowsBuffer() {
+        Stemmer stemmer = new Stemmer();
+        String word = "internationalizations internationalizations internationalizations";
+        String stem = stemmer.stem(word);
+        Assert.assertTrue(stem.length() <= word.length());
+        Assert.assertTrue(word.startsWith(stem));
+        Assert.assertEquals("poni", stemmer.stem("ponies"));
+    }
+
+    @Test
+    public void testInstancePerThread() throws InterruptedException {
+        Stemmer[] other = new Stemmer[1];
+        Thread thread = new Thread(() -> other[0] = Stemmer.forCurrentThread());
+        thread.start();
+        thread.join();
+        Assert.assertSame(Stemmer.forCurrentThread(), Stemmer.forCurrentThread());
+        Assert.assertNotSame(Stemmer.forCurrentThread(), other[0]);
+    }
+}
@@ -0,0 +1,65 @@
+package javazoneml.tools.preprocessing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class StopWordRemoverTest {
+
+    @Test
+    public void testRemoveStopWords() {
+        StopWordRemover remover = new StopWordRemover(StopWords.EN);
+        Assert.assertEquals("Java Streams explained", remover.removeStopWords("  Java  Streams\tare\n explained  "));
+        Assert.assertEquals("", remover.removeStopWords("The and of"));
+        Assert.assertEquals("", remover.removeStopWords(""));
+        Assert.assertNull(remover.removeStopWords(null));
+    }
+
+    @Test
+    public void testSameAsSplittingOnWhitespace() {
+        List<String> stopWords = new ArrayList<>(StopWords.NO);
+        stopWords.addAll(StopWords.NO_SPECIFIC);
+        StopWordRemover remover = new StopWordRemover(stopWords);
+        String[] texts = {
+                "Hvordan  BØR vi \t teste koden når den er\r\nferdig?",
+                "\u0001 og så videre \u0002",
+                "ingen stoppord her",
+                " \n "
+        };
+        for (String text : texts) {
+            String expected = Arrays.stream(text.replaceAll("\\s+", " ").trim().split(" "))
+                    .filter(s -> !stopWords.contains(s.toLowerCase()))
+                    .collect(Collectors.joining(" "));
+            Assert.assertEquals(expected, remover.removeStopWords(text));
+        }
+    }
+
+    @Test
+    public void testSinkGetsRanges() {
+        StopWordRemover remover = new StopWordRemover(StopWords.EN);
+        String text = "the JVM and the garbage collector";
+        List<String> tokens = new ArrayList<>();
+        remover.removeStopWords(text, 4, text.length(), (t, start, end) -> tokens.add(t.subSequence(start, end).toString()));
+        Assert.assertEquals(Arrays.asList("JVM", "garbage", "collector"), tokens);
+    }
+
+    @Test
+    public void testStopWordSet() {
+        StopWordSet set = StopWordSet.of(StopWords.EN, StopWords.EN_SPECIFIC);
+        for (String word : StopWords.EN) {
+            Assert.assertTrue(word, set.contains(word));
+            Assert.assertTrue(word, set.contains(word.toUpperCase()));
+        }
+        for (String word : StopWords.EN_SPECIFIC) {
+            Assert.assertTrue(word, set.contains(word));
+        }
+        Assert.assertFalse(set.contains("kotlin"));
+        Assert.assertFalse(set.contains(""));
+        Assert.assertTrue(set.contains("xxaboutxx", 2, 7));
+        Assert.assertFalse(StopWordSet.of(new ArrayList<>()).contains("a"));
+    }
+}
@@ -0,0 +1,101 @@
+package javazoneml.tools.preprocessing;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class TermDictionaryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIds() {
+        TermDictionary dictionary = new TermDictionary(4);
+        Assert.assertEquals(0, dictionary.id("java"));
+        Assert.assertEquals(1, dictionary.id("kotlin"));
+        Assert.assertEquals(0, dictionary.id("xjavax", 1, 5));
+        Assert.assertEquals(1, dictionary.find(new StringBuilder("kotlin"), 0, 6));
+        Assert.assertEquals(-1, dictionary.find("scala"));
+        Assert.assertEquals("kotlin", dictionary.term(1));
+        Assert.assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    public void testGrows() {
+        TermDictionary dictionary = new TermDictionary(4);
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertEquals(i, dictionary.id("term" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertEquals(i, dictionary.find("term" + i));
+            Assert.assertEquals("term" + i, dictionary.term(i));
+        }
+        Assert.assertEquals(10000, dictionary.id(""));
+        Assert.assertEquals("", dictionary.term(10000));
+    }
+
+    @Test
+    public void testConcurrentLookupsAndAdds() throws InterruptedException {
+        TermDictionary dictionary = new TermDictionary(4);
+        int[] steps = {1, 3, 7, 9};
+        int[][] ids = new int[steps.length][5000];
+        Thread[] threads = new Thread[ids.length];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    // every thread adds the same terms in another order
+                    int term = (i * steps[thread] * 7919) % 5000;
+                    ids[thread][term] = dictionary.id("term" + term);
+                    Assert.assertEquals("term" + term, dictionary.term(ids[thread][term]));
+                    Assert.assertEquals(ids[thread][term], dictionary.find("term" + term));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(5000, dictionary.size());
+        for (int t = 1; t < ids.length; t++) {
+            Assert.assertArrayEquals(ids[0], ids[t]);
+        }
+    }
+
+    @Test
+    public void testDocumentFrequencies() {
+        TermDictionary dictionary = new TermDictionary();
+        int java = dictionary.id("java");
+        int jvm = dictionary.id("jvm");
+        dictionary.addDocument(new int[]{java, java, jvm});
+        dictionary.addDocument(new int[]{java});
+        Assert.assertEquals(2, dictionary.getDocumentCount());
+        Assert.assertEquals(2, dictionary.getDocumentFrequency(java));
+        Assert.assertEquals(1, dictionary.getDocumentFrequency(jvm));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        TermDictionary dictionary = new TermDictionary();
+        int java = dictionary.id("java");
+        int bor = dictionary.id("bør");
+        dictionary.addDocument(new int[]{java, bor});
+        dictionary.addDocument(new int[]{bor});
+
+        Path file = folder.getRoot().toPath().resolve("terms.dict");
+        dictionary.save(file);
+        TermDictionary loaded = TermDictionary.load(file);
+
+        Assert.assertEquals(2, loaded.size());
+        Assert.assertEquals(2, loaded.getDocumentCount());
+        Assert.assertEquals(bor, loaded.find("bør"));
+        Assert.assertEquals("java", loaded.term(java));
+        Assert.assertEquals(2, loaded.getDocumentFrequency(bor));
+        Assert.assertEquals(2, loaded.id("scala"));
+    }
+}
@@ -0,0 +1,71 @@
+package javazoneml.tools.preprocessing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class TokenPipelineTest {
+
+    @Test
+    public void testWordsMatchMalletPattern() {
+        Pattern pattern = Pattern.compile("\\p{L}[\\p{L}\\p{P}]+\\p{L}");
+        String[] texts = {
+                "Hva er nytt i Java 9? Mye, blant annet JShell og moduler (Jigsaw).",
+                "a ab abc a.b a.bc ab-- --ab-cd-- x,y,z don't \"quoted\" e-mail",
+                "ÆØÅ-kode, blåbær... og (ærlig talt) ",
+                ""
+        };
+        for (String text : texts) {
+            List<String> expected = new ArrayList<>();
+            Matcher matcher = pattern.matcher(text);
+            while (matcher.find()) {
+                expected.add(matcher.group());
+            }
+            Assert.assertEquals(text, expected, tokens(Tokenizer.WORDS, text));
+        }
+    }
+
+    @Test
+    public void testAsciiLetters() {
+        Assert.assertEquals(Arrays.asList("Java", "b", "r", "vi", "JVM"), tokens(Tokenizer.ASCII_LETTERS, "Java9 bør vi JVM!"));
+    }
+
+    @Test
+    public void testPipeline() {
+        TokenPipeline pipeline = TokenPipeline.builder()
+                .tokenizer(Tokenizer.ASCII_LETTERS)
+                .stopWords(StopWords.EN)
+                .stem(new StemCache(100))
+                .build();
+        int[] ids = pipeline.process("The Meetings about meeting the JVM");
+        TermDictionary dictionary = pipeline.getDictionary();
+        Assert.assertEquals(3, ids.length);
+        Assert.assertEquals("meet", dictionary.term(ids[0]));
+        Assert.assertEquals(ids[0], ids[1]);
+        Assert.assertEquals("jvm", dictionary.term(ids[2]));
+        Assert.assertEquals(0, pipeline.process((CharSequence) null).length);
+    }
+
+    @Test
+    public void testTokenizedCorpus() {
+        TokenPipeline pipeline = TokenPipeline.builder().build();
+        TokenizedCorpus corpus = pipeline.process(Arrays.asList("Kotlin and Java", "", "java"));
+        Assert.assertEquals(3, corpus.size());
+        Assert.assertEquals(3, corpus.length(0));
+        Assert.assertEquals(0, corpus.length(1));
+        Assert.assertEquals(1, corpus.length(2));
+        Assert.assertEquals(corpus.id(0, 2), corpus.id(2, 0));
+        Assert.assertEquals("kotlin", corpus.getDictionary().term(corpus.document(0)[0]));
+    }
+
+    private List<String> tokens(Tokenizer tokenizer, String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenizer.tokenize(text, (t, start, end) -> tokens.add(t.subSequence(start, end).toString()));
+        return tokens;
+    }
+}
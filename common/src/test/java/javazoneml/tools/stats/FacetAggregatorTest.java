@@ -0,0 +1,73 @@
+package javazoneml.tools.stats;
+
+import javazoneml.model.Presentation;
+import javazoneml.tools.stats.FacetAggregator.Facet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class FacetAggregatorTest {
+
+    @Test
+    public void testWordCountLikeSplit() {
+        String[] inputs = {"", " ", "   ", "one", "one two", " one", "one ", "one  two", "  one  two  "};
+        for (String input : inputs) {
+            Assert.assertEquals("'" + input + "'", input.split(" ").length, FacetAggregator.wordCount(input));
+        }
+        Assert.assertEquals(0, FacetAggregator.wordCount(null));
+    }
+
+    @Test
+    public void testGroupings() {
+        FacetAggregator aggregator = new FacetAggregator()
+                .groupBy(Facet.YEAR)
+                .groupBy(Facet.YEAR, Facet.LANGUAGE)
+                .groupBy()
+                .measure("documents", p -> 1)
+                .measure("words", p -> FacetAggregator.wordCount(p.getTitle()));
+        List<Presentation> presentations = Arrays.asList(
+                presentation(2015, "en", "Java in production"),
+                presentation(2015, "no", "Java i produksjon"),
+                presentation(2016, "en", "Kotlin"),
+                presentation(2016, null, "Scala for fun"));
+
+        FacetAggregator.Result result = presentations.stream().collect(aggregator.collector());
+
+        Map<List<String>, Long> documents = result.get("documents", Facet.YEAR);
+        Assert.assertEquals(2L, (long) documents.get(Arrays.asList("2015")));
+        Assert.assertEquals(2L, (long) documents.get(Arrays.asList("2016")));
+        Map<List<String>, Long> words = result.get("words", Facet.YEAR, Facet.LANGUAGE);
+        Assert.assertEquals(3L, (long) words.get(Arrays.asList("2015", "no")));
+        Assert.assertEquals(3L, (long) words.get(Arrays.asList("2016", null)));
+        Assert.assertEquals(10, result.getTotal("words"));
+        Assert.assertEquals(4, result.getTotal("documents"));
+    }
+
+    @Test
+    public void testParallelSameAsSequential() {
+        FacetAggregator aggregator = new FacetAggregator()
+                .groupBy(Facet.YEAR, Facet.LANGUAGE)
+                .measure("words", p -> FacetAggregator.wordCount(p.getTitle()));
+        List<Presentation> presentations = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            presentations.add(presentation(2000 + i % 17, i % 3 == 0 ? "no" : "en", "talk number " + i));
+        }
+
+        Map<List<String>, Long> sequential = presentations.stream().collect(aggregator.collector()).get("words", Facet.YEAR, Facet.LANGUAGE);
+        Map<List<String>, Long> parallel = presentations.parallelStream().collect(aggregator.collector()).get("words", Facet.YEAR, Facet.LANGUAGE);
+        Assert.assertEquals(34, sequential.size());
+        Assert.assertEquals(sequential, parallel);
+    }
+
+    private Presentation presentation(int year, String language, String title) {
+        Presentation presentation = new Presentation();
+        presentation.setYear(year);
+        presentation.setLanguage(language);
+        presentation.setTitle(title);
+        return presentation;
+    }
+}
@@ -0,0 +1,78 @@
+package javazoneml.tools.stats;
+
+import javazoneml.tools.preprocessing.TermDictionary;
+import javazoneml.tools.preprocessing.TokenPipeline;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class IncrementalTfIdfTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameAsFullIndex() {
+        IncrementalTfIdf index = new IncrementalTfIdf();
+        add(index, "a", "java java kotlin");
+        add(index, "b", "java scala");
+        add(index, "c", "groovy scala scala scala");
+        add(index, "d", "clojure java");
+        assertSame(index, "java java kotlin", "java scala", "groovy scala scala scala", "clojure java");
+
+        index.remove("d");
+        add(index, "b", "scala scala kotlin");
+        assertSame(index, "java java kotlin", "scala scala kotlin", "groovy scala scala scala");
+        Assert.assertFalse(index.getAverageTfIdfByTerm().containsKey("clojure"));
+    }
+
+    @Test
+    public void testChangesAndRetain() {
+        IncrementalTfIdf index = new IncrementalTfIdf();
+        add(index, "a", "java");
+        add(index, "b", "kotlin");
+        Assert.assertTrue(index.isCurrent("a", IncrementalTfIdf.digest("java")));
+        Assert.assertFalse(index.isCurrent("a", IncrementalTfIdf.digest("scala")));
+        Assert.assertEquals(1, index.retainAll(new HashSet<>(Arrays.asList("a", "c"))));
+        Assert.assertEquals(1, index.getDocumentCount());
+        Assert.assertFalse(index.contains("b"));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        IncrementalTfIdf index = new IncrementalTfIdf();
+        add(index, "a", "java java kotlin");
+        add(index, "b", "java scala");
+        Path state = folder.getRoot().toPath().resolve("tfidf.state");
+        index.save(state);
+
+        IncrementalTfIdf loaded = IncrementalTfIdf.load(state);
+        Assert.assertEquals(index.getAverageTfIdfByTerm(), loaded.getAverageTfIdfByTerm());
+        Assert.assertTrue(loaded.isCurrent("b", IncrementalTfIdf.digest("java scala")));
+        add(loaded, "c", "groovy scala");
+        assertSame(loaded, "java java kotlin", "java scala", "groovy scala");
+    }
+
+    private void add(IncrementalTfIdf index, String key, String text) {
+        TokenPipeline pipeline = TokenPipeline.builder().dictionary(index.getDictionary()).build();
+        index.add(key, IncrementalTfIdf.digest(text), pipeline.process(text));
+    }
+
+    private void assertSame(IncrementalTfIdf index, String... documents) {
+        List<String> texts = Arrays.asList(documents);
+        Map<String, Double> expected = new TfIdfIndex(TokenPipeline.builder().dictionary(new TermDictionary()).build()
+                .process(texts)).getAverageTfIdfByTerm();
+        Map<String, Double> actual = index.getAverageTfIdfByTerm();
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+        for (String term : expected.keySet()) {
+            Assert.assertEquals(term, expected.get(term), actual.get(term), 1e-12);
+        }
+    }
+}
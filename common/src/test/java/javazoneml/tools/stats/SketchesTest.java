@@ -0,0 +1,87 @@
+package javazoneml.tools.stats;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class SketchesTest {
+
+    @Test
+    public void testHyperLogLog() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 60000; i++) {
+            first.add("term" + i);
+            second.add("term" + (i + 30000));
+        }
+        Assert.assertEquals(60000, first.cardinality(), 60000 * 0.05);
+        Assert.assertEquals(90000, first.merge(second).cardinality(), 90000 * 0.05);
+
+        HyperLogLog small = new HyperLogLog();
+        Arrays.asList("java", "Java", "JAVA", "kotlin", "scala").forEach(small::add);
+        Assert.assertEquals(3, small.cardinality());
+    }
+
+    @Test
+    public void testCountMinNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("term" + (i % 100));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(sketch.estimate("term" + i) >= 10);
+        }
+        Assert.assertEquals(1000, sketch.getTotal());
+    }
+
+    @Test
+    public void testTopTerms() {
+        TopTerms first = new TopTerms(3);
+        TopTerms second = new TopTerms(3);
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            first.add("rare" + random.nextInt(1000));
+            second.add("rare" + random.nextInt(1000));
+        }
+        for (int i = 0; i < 300; i++) {
+            first.add("Java");
+            second.add(i % 2 == 0 ? "kotlin" : "scala");
+        }
+        for (int i = 0; i < 200; i++) {
+            first.add("kotlin");
+        }
+
+        List<Map.Entry<String, Long>> top = first.merge(second).getTop();
+        Assert.assertEquals(3, top.size());
+        Assert.assertEquals("kotlin", top.get(0).getKey());
+        Assert.assertTrue(top.get(0).getValue() >= 350);
+        Assert.assertEquals("java", top.get(1).getKey());
+        Assert.assertEquals("scala", top.get(2).getKey());
+    }
+
+    @Test
+    public void testReservoirSample() {
+        ReservoirSample<Integer> first = new ReservoirSample<>(10, new Random(1));
+        ReservoirSample<Integer> second = new ReservoirSample<>(10, new Random(2));
+        for (int i = 0; i < 1000; i++) {
+            first.add(i);
+        }
+        for (int i = 1000; i < 1005; i++) {
+            second.add(i);
+        }
+        Assert.assertEquals(10, first.getItems().size());
+        Assert.assertEquals(5, second.getItems().size());
+
+        first.merge(second);
+        Assert.assertEquals(1005, first.getSeen());
+        Assert.assertEquals(10, first.getItems().size());
+        Set<Integer> distinct = new HashSet<>(first.getItems());
+        Assert.assertEquals(10, distinct.size());
+    }
+}
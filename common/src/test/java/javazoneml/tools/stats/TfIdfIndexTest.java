@@ -0,0 +1,62 @@
+package javazoneml.tools.stats;
+
+import javazoneml.tools.preprocessing.TokenPipeline;
+import javazoneml.tools.preprocessing.TokenizedCorpus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public class TfIdfIndexTest {
+
+    private final TokenizedCorpus corpus = TokenPipeline.builder().build().process(Arrays.asList(
+            "java java kotlin",
+            "java scala",
+            "",
+            "groovy scala scala scala"));
+
+    @Test
+    public void testDocumentFrequencies() {
+        TfIdfIndex index = new TfIdfIndex(corpus);
+        Assert.assertEquals(4, index.getDocumentCount());
+        Assert.assertEquals(2, index.getDocumentFrequency(corpus.getDictionary().find("java")));
+        Assert.assertEquals(1, index.getDocumentFrequency(corpus.getDictionary().find("groovy")));
+        Assert.assertEquals(0, index.getTerms(2).length);
+    }
+
+    @Test
+    public void testSameAsBruteForce() {
+        Map<String, Double> averages = new TfIdfIndex(corpus).getAverageTfIdfByTerm();
+        Assert.assertEquals(4, averages.size());
+        for (Map.Entry<String, Double> average : averages.entrySet()) {
+            Assert.assertEquals(average.getKey(), bruteForce(average.getKey()), average.getValue(), 1e-12);
+        }
+    }
+
+    /**
+     * The TF-IDF of every occurrence of the term, averaged, computed straight from the definition.
+     */
+    private double bruteForce(String term) {
+        int id = corpus.getDictionary().find(term);
+        int df = 0;
+        for (int document = 0; document < corpus.size(); document++) {
+            if (Arrays.stream(corpus.document(document)).anyMatch(t -> t == id)) {
+                df++;
+            }
+        }
+        double idf = Math.log10((double) corpus.size() / df);
+        double sum = 0;
+        int occurrences = 0;
+        for (int document = 0; document < corpus.size(); document++) {
+            int[] ids = corpus.document(document);
+            long count = Arrays.stream(ids).filter(t -> t == id).count();
+            if (count == 0) {
+                continue;
+            }
+            sum += count * ((double) count / ids.length) * idf;
+            occurrences += count;
+        }
+        return sum / occurrences;
+    }
+}
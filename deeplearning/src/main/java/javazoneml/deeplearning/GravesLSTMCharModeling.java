@@ -2,8 +2,8 @@ package javazoneml.deeplearning;
 
 import com.google.common.base.Strings;
 import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
 import javazoneml.tools.data.DataFilter;
-import javazoneml.tools.data.DataProvider;
 import org.deeplearning4j.nn.api.Layer;
 import org.deeplearning4j.nn.api.OptimizationAlgorithm;
 import org.deeplearning4j.nn.conf.*;
@@ -24,19 +24,16 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public abstract class GravesLSTMCharModeling {
-    private DataProvider dataProvider = new DataProvider();
-
     public abstract void doTraining();
 
     protected List<String> getDataLines(){
         List<Predicate<Presentation>> excludes = new ArrayList<>();
         excludes.addAll(DataFilter.EXCLUDES);
         excludes.add(p -> (p.getSummary() == null) && (p.getDescription() == null));
-        List<Presentation> presentations = dataProvider.getAll(excludes);
+        List<Presentation> presentations = CorpusSnapshot.getInstance().getIndex().query().language("en").list(excludes);
         Collections.shuffle(presentations);
 
         String content = presentations.stream()
-                .filter(p -> p.getLanguage().equals("en"))
                 .map(p -> p.getSummary()+"\n" + p.getDescription()).collect(Collectors.joining("\n"));
         List <String> lines = Arrays.asList(content.split("\n"));
         return lines.stream().filter(l -> !Strings.isNullOrEmpty(l)).collect(Collectors.toList());
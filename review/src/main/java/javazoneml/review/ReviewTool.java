@@ -35,8 +35,8 @@ import edu.stanford.nlp.pipeline.Annotation;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.util.CoreMap;
 import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
 import javazoneml.tools.data.DataFilter;
-import javazoneml.tools.data.DataProvider;
 import javazoneml.tools.preprocessing.StopWords;
 
 public class ReviewTool {
@@ -242,8 +242,7 @@ public class ReviewTool {
 	}
 
 	private List<Presentation> getPresentations() {
-		DataProvider reader = new DataProvider();
-		return reader.getAll(DataFilter.EXCLUDES);
+		return CorpusSnapshot.getInstance().getAll(DataFilter.EXCLUDES);
 	}
 
 	// extract titles from
@@ -35,8 +35,8 @@ import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.util.CoreMap;
 import javazoneml.model.Presentation;
 import javazoneml.model.Speaker;
+import javazoneml.tools.data.CorpusSnapshot;
 import javazoneml.tools.data.DataFilter;
-import javazoneml.tools.data.DataProvider;
 
 public class DistributedWordModel {
 
@@ -265,8 +265,7 @@ public class DistributedWordModel {
 	 * @throws IOException
 	 */
 	public void findTalksWithWords(String entity, String word) throws IOException {
-		DataProvider reader = new DataProvider();		
-		List<Presentation> presentations = reader.getAll(DataFilter.EXCLUDES);
+		List<Presentation> presentations = CorpusSnapshot.getInstance().getAll(DataFilter.EXCLUDES);
 		System.out.println("Finding talks with entity " + entity + " and word " + word);
 
 		for (Presentation presentation : presentations) {
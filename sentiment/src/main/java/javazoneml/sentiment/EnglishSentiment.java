@@ -30,8 +30,8 @@ import edu.stanford.nlp.sentiment.SentimentCoreAnnotations;
 import edu.stanford.nlp.util.CoreMap;
 import javazoneml.model.Presentation;
 import javazoneml.model.Speaker;
+import javazoneml.tools.data.CorpusSnapshot;
 import javazoneml.tools.data.DataFilter;
-import javazoneml.tools.data.DataProvider;
 
 public class EnglishSentiment {
 
@@ -56,11 +56,8 @@ public class EnglishSentiment {
 	}
 
 	public void dumpPresentationSentimentAnalysis(String language) {
-		DataProvider reader = new DataProvider();		
-		List<Presentation> presentations = reader.getAll(DataFilter.EXCLUDES);
-
-		presentations = presentations.stream().filter(p -> language.equalsIgnoreCase(p.getLanguage()))
-				.collect(Collectors.toList());
+		List<Presentation> presentations = CorpusSnapshot.getInstance().getIndex().query().language(language)
+				.list(DataFilter.EXCLUDES);
 
 		HashMap<Presentation, String> presentationSentiment = new HashMap<>();
 
@@ -92,11 +89,8 @@ public class EnglishSentiment {
 	}
 
 	public void dumpBioSentimentAnalysis(String language) {
-		DataProvider reader = new DataProvider();		
-		List<Presentation> presentations = reader.getAll(DataFilter.EXCLUDES);
-
-		presentations = presentations.stream().filter(p -> language.equalsIgnoreCase(p.getLanguage()))
-				.collect(Collectors.toList());
+		List<Presentation> presentations = CorpusSnapshot.getInstance().getIndex().query().language(language)
+				.list(DataFilter.EXCLUDES);
 
 		HashMap<Presentation, String> presentationSentiment = new HashMap<>();
 
@@ -146,11 +140,8 @@ public class EnglishSentiment {
 	}
 
 	private HashMap<Presentation, SENTIMENT> getScores(String file, String language) {
-		DataProvider reader = new DataProvider();		
-		List<Presentation> presentations = reader.getAll(DataFilter.EXCLUDES);
-
-		presentations = presentations.stream().filter(p -> language.equalsIgnoreCase(p.getLanguage()))
-				.collect(Collectors.toList());
+		List<Presentation> presentations = CorpusSnapshot.getInstance().getIndex().query().language(language)
+				.list(DataFilter.EXCLUDES);
 
 		List<String> sentimentList = new ArrayList<>();
 		Path path = Paths.get(file);
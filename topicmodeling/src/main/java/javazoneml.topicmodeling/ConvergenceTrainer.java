@@ -0,0 +1,117 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.topics.ParallelTopicModel;
+
+import java.io.IOException;
+
+/**
+ * Trains a topic model in chunks of iterations and stops once the model log likelihood has stopped
+ * improving: when the relative improvement over a chunk stays below the threshold for
+ * <code>patience</code> checks in a row, or at the maximum number of iterations.
+ * <p>
+ * Afterwards the model's numIterations holds the number of iterations it was actually trained for.
+ * Alpha and beta are optimized as in one long run, which needs chunks that are a multiple of the model's
+ * optimize interval. Every chunk starts Mallet's sampler threads anew, so chunks should not be too short.
+ * Training can report every chunk to a {@link Checkpoint}, and continue from a checkpointed model.
+ */
+public class ConvergenceTrainer {
+    private final int maxIterations;
+    private final int checkInterval;
+    private final double threshold;
+    private final int patience;
+
+    /**
+     * @param maxIterations iterations after which training stops in any case
+     * @param checkInterval iterations between two log likelihood checks
+     * @param threshold     relative improvement of the log likelihood below which a check counts as stalled
+     * @param patience      stalled checks in a row after which training stops
+     */
+    public ConvergenceTrainer(int maxIterations, int checkInterval, double threshold, int patience) {
+        if (maxIterations < 1 || checkInterval < 1 || patience < 1) {
+            throw new IllegalArgumentException("Iterations, check interval and patience must be positive");
+        }
+        this.maxIterations = maxIterations;
+        this.checkInterval = checkInterval;
+        this.threshold = threshold;
+        this.patience = patience;
+    }
+
+    /**
+     * Always trains for <code>iterations</code> iterations, without checks.
+     */
+    public static ConvergenceTrainer fixed(int iterations) {
+        return new ConvergenceTrainer(iterations, iterations, Double.NEGATIVE_INFINITY, 1);
+    }
+
+    /**
+     * @return the number of iterations the model was trained for
+     * @throws IllegalArgumentException if the check interval is not a multiple of the model's optimize interval
+     */
+    public int train(ParallelTopicModel model) throws IOException {
+        return train(model, 0, null);
+    }
+
+    /**
+     * Continues training a model that has already been trained for <code>completedIterations</code>,
+     * for instance one resumed from a checkpoint. The stall count starts over.
+     *
+     * @param checkpoint called after every chunk, may be null
+     * @return the number of iterations the model was trained for, including the completed ones
+     */
+    public int train(ParallelTopicModel model, int completedIterations, Checkpoint checkpoint) throws IOException {
+        int optimizeInterval = model.optimizeInterval;
+        if (optimizeInterval != 0 && (completedIterations % optimizeInterval != 0
+                || checkInterval % optimizeInterval != 0 && checkInterval < maxIterations - completedIterations)) {
+            throw new IllegalArgumentException("Chunks of " + checkInterval + " iterations after " + completedIterations
+                    + " do not line up with hyperparameter optimization every " + optimizeInterval + " iterations");
+        }
+
+        int burninPeriod = model.burninPeriod;
+        int iterations = completedIterations;
+        double previous = Double.NaN;
+        int stalled = 0;
+        while (iterations < maxIterations) {
+            int chunk = Math.min(checkInterval, maxIterations - iterations);
+            model.setNumIterations(chunk);
+            // estimate() counts from 1 on every call, shifting the burn-in keeps alpha and beta
+            // optimized on the schedule of a single run of maxIterations
+            model.setBurninPeriod(Math.max(0, burninPeriod - iterations));
+            try {
+                model.estimate();
+            } finally {
+                model.setBurninPeriod(burninPeriod);
+            }
+            iterations += chunk;
+            if (checkpoint != null) {
+                model.setNumIterations(iterations);
+                checkpoint.save(model, iterations);
+            }
+
+            if (iterations < maxIterations && threshold != Double.NEGATIVE_INFINITY) {
+                double logLikelihood = model.modelLogLikelihood();
+                if (!Double.isNaN(previous)) {
+                    double improvement = (logLikelihood - previous) / Math.abs(previous);
+                    stalled = improvement < threshold ? stalled + 1 : 0;
+                    if (stalled >= patience) {
+                        break;
+                    }
+                }
+                previous = logLikelihood;
+            }
+        }
+        model.setNumIterations(iterations);
+        return iterations;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Receives the model after every chunk of iterations, with numIterations set to the iterations so far.
+     */
+    @FunctionalInterface
+    public interface Checkpoint {
+        void save(ParallelTopicModel model, int iterations) throws IOException;
+    }
+}
@@ -3,17 +3,31 @@ package javazoneml.topicmodeling;
 import cc.mallet.types.Instance;
 import cc.mallet.types.Token;
 import cc.mallet.types.TokenSequence;
-import javazoneml.tools.preprocessing.Stemmer;
+import javazoneml.tools.preprocessing.StemCache;
 
 public class StemmingPipe {
-    Stemmer stemmer = new Stemmer();
+    private final StemCache stems;
 
+    public StemmingPipe() {
+        this(StemCache.shared());
+    }
+
+    public StemmingPipe(StemCache stems) {
+        this.stems = stems;
+    }
+
+    /**
+     * Stems the tokens in place through the stem cache, tokens that are already stems keep their text.
+     */
     public Instance pipe (Instance carrier)
     {
         TokenSequence ts = (TokenSequence) carrier.getData();
         for (Token t : ts) {
-            String stemmed = stemmer.stem(t.getText());
-            t.setText(stemmed);
+            String text = t.getText();
+            String stem = stems.stem(text);
+            if (stem != text) {
+                t.setText(stem);
+            }
         }
         return carrier;
     }
@@ -0,0 +1,68 @@
+package javazoneml.topicmodeling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs the configurations of a hyperparameter sweep concurrently within a thread budget.
+ * <p>
+ * Every configuration uses <code>threadsPerTask</code> threads, so at most threadBudget / threadsPerTask
+ * run at the same time. The most expensive configurations are started first, which keeps the long
+ * runs from being left alone at the end of the sweep.
+ */
+public class SweepScheduler {
+    private final int threadBudget;
+    private final int threadsPerTask;
+
+    public SweepScheduler(int threadBudget, int threadsPerTask) {
+        if (threadBudget < 1 || threadsPerTask < 1) {
+            throw new IllegalArgumentException("Thread budget and threads per task must be positive");
+        }
+        this.threadBudget = threadBudget;
+        this.threadsPerTask = threadsPerTask;
+    }
+
+    public int getConcurrency() {
+        return Math.max(1, threadBudget / threadsPerTask);
+    }
+
+    public int getThreadsPerTask() {
+        return threadsPerTask;
+    }
+
+    /**
+     * Runs <code>task</code> for every configuration, most expensive first, and passes each result to
+     * <code>onResult</code> as soon as it is done. <code>onResult</code> is called from the worker
+     * threads. A failing configuration is reported and does not stop the others.
+     * Returns when all configurations are done.
+     */
+    public <C, R> void run(List<C> configurations, ToLongFunction<C> cost, Function<C, R> task, BiConsumer<C, R> onResult) {
+        List<C> ordered = new ArrayList<>(configurations);
+        ordered.sort(Comparator.comparingLong(cost).reversed());
+
+        ExecutorService executor = Executors.newFixedThreadPool(getConcurrency());
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (C configuration : ordered) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        onResult.accept(configuration, task.apply(configuration));
+                    } catch (RuntimeException e) {
+                        System.err.println("Configuration " + configuration + " failed");
+                        e.printStackTrace();
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
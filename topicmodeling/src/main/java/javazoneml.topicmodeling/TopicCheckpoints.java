@@ -0,0 +1,124 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.topics.ParallelTopicModel;
+import cc.mallet.topics.TopicAssignment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps the sampler state of the models of a sweep in a directory, so a killed sweep can pick up where
+ * it stopped.
+ * <ul>
+ * <li>&lt;name&gt;.checkpoint: the serialized model of a run in progress, written every
+ * <code>interval</code> iterations, its numIterations holds the iterations done</li>
+ * <li>&lt;name&gt;.model: the serialized model of a finished run</li>
+ * <li>&lt;name&gt;.state.gz: the topic assignments of a finished run, see
+ * {@link ParallelTopicModel#printState(File)}, to warm start runs with the same number of topics</li>
+ * </ul>
+ * The serialized models hold the hyperparameters as optimized so far, a resumed run continues with them.
+ * Files are replaced atomically, a checkpoint is either the previous or the new one.
+ */
+public class TopicCheckpoints {
+    public static final String DIRECTORY_PROPERTY = "javazoneml.checkpoints";
+    public static final int DEFAULT_INTERVAL = 200;
+
+    private final File directory;
+    private final int interval;
+
+    public TopicCheckpoints(File directory, int interval) {
+        this.directory = directory;
+        this.interval = interval;
+    }
+
+    /**
+     * @return checkpoints in the directory given by the system property {@value #DIRECTORY_PROPERTY},
+     * or null if it is not set
+     */
+    public static TopicCheckpoints configured() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        return directory == null ? null : new TopicCheckpoints(new File(directory), DEFAULT_INTERVAL);
+    }
+
+    /**
+     * @return the finished model, or null if there is none
+     */
+    public ParallelTopicModel loadFinished(String name) throws IOException {
+        return read(file(name, ".model"));
+    }
+
+    /**
+     * @return the model of an interrupted run, or null if there is none
+     */
+    public ParallelTopicModel loadCheckpoint(String name) throws IOException {
+        return read(file(name, ".checkpoint"));
+    }
+
+    /**
+     * Saves the model every <code>interval</code> iterations.
+     */
+    public ConvergenceTrainer.Checkpoint checkpoint(String name) {
+        return (model, iterations) -> {
+            if (iterations % interval == 0) {
+                write(model, file(name, ".checkpoint"));
+            }
+        };
+    }
+
+    /**
+     * Saves the finished model and its state, and drops its checkpoint.
+     */
+    public void finish(String name, ParallelTopicModel model) throws IOException {
+        write(model, file(name, ".model"));
+        File state = file(name, ".state.gz");
+        File temporary = new File(directory, state.getName() + ".tmp");
+        model.printState(temporary);
+        Files.move(temporary.toPath(), state.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(file(name, ".checkpoint").toPath());
+    }
+
+    /**
+     * @return the topic assignments of the finished run, or null if there is none
+     */
+    public File getState(String name) {
+        File state = file(name, ".state.gz");
+        return state.isFile() ? state : null;
+    }
+
+    private File file(String name, String extension) {
+        return new File(directory, name + extension);
+    }
+
+    private void write(ParallelTopicModel model, File file) throws IOException {
+        Files.createDirectories(directory.toPath());
+        File temporary = new File(directory, file.getName() + ".tmp");
+        model.write(temporary);
+        if (!temporary.isFile()) {
+            throw new IOException("Could not write " + temporary);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private ParallelTopicModel read(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        ParallelTopicModel model;
+        try {
+            model = ParallelTopicModel.read(file);
+        } catch (Exception e) {
+            throw new IOException("Could not read " + file, e);
+        }
+        // Mallet does not serialize the token total and the largest type count, which perplexity and
+        // beta optimization need, both are rebuilt from the topic assignments
+        model.buildInitialTypeTopicCounts();
+        int totalTokens = 0;
+        for (TopicAssignment assignment : model.getData()) {
+            totalTokens += assignment.topicSequence.getLength();
+        }
+        model.totalTokens = totalTokens;
+        return model;
+    }
+}
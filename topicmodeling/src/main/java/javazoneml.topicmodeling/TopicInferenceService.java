@@ -0,0 +1,100 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.pipe.Pipe;
+import cc.mallet.topics.ParallelTopicModel;
+import cc.mallet.topics.TopicInferencer;
+import cc.mallet.types.Alphabet;
+import cc.mallet.types.Instance;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Topic distributions of new documents under a trained model, without retraining.
+ * <p>
+ * Documents go through the same preprocessing as the sweep, with words mapped to the alphabet of the
+ * model. Words the model has not seen are dropped, the alphabet never grows. Pipes and inferencers
+ * are not thread-safe, so every thread keeps its own, built on first use and sharing the read-only
+ * counts of the model. The sampler is reseeded for every document, so a text gets the same
+ * distribution whichever thread scores it and whatever was scored before.
+ */
+public class TopicInferenceService {
+    public static final int DEFAULT_ITERATIONS = 100;
+    public static final int DEFAULT_THINNING = 10;
+    public static final int DEFAULT_BURN_IN = 10;
+    private static final int RANDOM_SEED = 1;
+
+    private final ParallelTopicModel model;
+    private final int iterations;
+    private final int thinning;
+    private final int burnIn;
+    private final ThreadLocal<Pipe> pipe;
+    private final ThreadLocal<TopicInferencer> inferencer;
+
+    /**
+     * Stops the growth of the model's alphabet, the model can not take new words afterwards.
+     */
+    public TopicInferenceService(ParallelTopicModel model, List<String> stopWords) {
+        this(model, stopWords, DEFAULT_ITERATIONS, DEFAULT_THINNING, DEFAULT_BURN_IN);
+    }
+
+    /**
+     * Stops the growth of the model's alphabet, the model can not take new words afterwards.
+     *
+     * @param iterations sampling iterations per document, fewer are faster and noisier
+     * @param thinning   iterations between two samples that are averaged into the distribution
+     * @param burnIn     iterations before the first sample
+     */
+    public TopicInferenceService(ParallelTopicModel model, List<String> stopWords, int iterations, int thinning, int burnIn) {
+        if (iterations < 1 || thinning < 1 || burnIn < 0 || burnIn >= iterations) {
+            throw new IllegalArgumentException("Iterations and thinning must be positive, burn-in below iterations");
+        }
+        this.model = model;
+        this.iterations = iterations;
+        this.thinning = thinning;
+        this.burnIn = burnIn;
+        Alphabet alphabet = model.getAlphabet();
+        alphabet.stopGrowth();
+        this.pipe = ThreadLocal.withInitial(() -> TopicModeling.createPipe(stopWords, alphabet));
+        this.inferencer = ThreadLocal.withInitial(model::getInferencer);
+    }
+
+    /**
+     * Loads a model written by {@link ParallelTopicModel#write(File)}, such as a finished model of
+     * {@link TopicCheckpoints}.
+     */
+    public static TopicInferenceService load(File modelFile, List<String> stopWords) throws IOException {
+        try {
+            return new TopicInferenceService(ParallelTopicModel.read(modelFile), stopWords);
+        } catch (Exception e) {
+            throw new IOException("Could not read " + modelFile, e);
+        }
+    }
+
+    public ParallelTopicModel getModel() {
+        return model;
+    }
+
+    public int getNumTopics() {
+        return model.getNumTopics();
+    }
+
+    /**
+     * @return the proportion of every topic in <code>text</code>
+     */
+    public double[] inferTopics(String text) {
+        Instance instance = pipe.get().instanceFrom(new Instance(text, "X", null, null));
+        TopicInferencer topicInferencer = inferencer.get();
+        topicInferencer.setRandomSeed(RANDOM_SEED);
+        return topicInferencer.getSampledDistribution(instance, iterations, thinning, burnIn);
+    }
+
+    /**
+     * {@link #inferTopics(String)} for every text, in parallel, in the order of <code>texts</code>.
+     */
+    public List<double[]> inferTopics(List<String> texts) {
+        return texts.parallelStream().map(this::inferTopics).collect(Collectors.toList());
+    }
+}
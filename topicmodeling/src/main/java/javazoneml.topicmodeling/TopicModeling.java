@@ -6,14 +6,17 @@ import cc.mallet.topics.ParallelTopicModel;
 import cc.mallet.types.Alphabet;
 import cc.mallet.types.IDSorter;
 import cc.mallet.types.InstanceList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
 import javazoneml.tools.data.DataFilter;
-import javazoneml.tools.data.DataProvider;
 import javazoneml.tools.preprocessing.StopWords;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -27,7 +30,15 @@ public class TopicModeling {
     private static List<Integer> numberOfTopics = Arrays.asList(10, 15, 20, 25, 30, 50, 70, 100);
     private static List<Double> alphaValues = Arrays.asList(0.5, 0.1);
     private static List<Double> betaValues = Arrays.asList(0.05, 0.01);
+    public static final String INSTANCES_PROPERTY = "javazoneml.instances";
+    private static final String TOKEN_PATTERN = "\\p{L}[\\p{L}\\p{P}]+\\p{L}";
+    private static final int threadsPerModel = 2;
     private TopicModelingStatistics topicModelingStatistics;
+    private SweepScheduler scheduler;
+    private ConvergenceTrainer trainer = new ConvergenceTrainer(2000, 50, 0.001, 3);
+    private final Map<LanguageData, InstanceList> instanceLists = new ConcurrentHashMap<>();
+    private final Map<String, String> warmStarts = new ConcurrentHashMap<>();
+    private File outputDirectory = new File(".");
 
     static {
         noStopWords.addAll(StopWords.NO);
@@ -37,69 +48,186 @@ public class TopicModeling {
         enStopWords.addAll(StopWords.EN_SPECIFIC);
     }
 
-    public TopicModeling(DataProvider dataProvider, TopicModelingStatistics topicModelingStatistics) {
+    public TopicModeling(CorpusSnapshot corpus, TopicModelingStatistics topicModelingStatistics) {
+        this(corpus, topicModelingStatistics, Runtime.getRuntime().availableProcessors());
+    }
+
+    public TopicModeling(CorpusSnapshot corpus, TopicModelingStatistics topicModelingStatistics, int threadBudget) {
         this.topicModelingStatistics = topicModelingStatistics;
+        this.scheduler = new SweepScheduler(threadBudget, threadsPerModel);
         List<Predicate<Presentation>> excludes = new ArrayList<>();
         excludes.addAll(DataFilter.EXCLUDES);
         excludes.add(p -> (p.getSummary() == null || p.getSummary().length() < 100) && (p.getDescription() == null || p.getDescription().length() < 100));
-        List<Presentation> presentations = dataProvider.getAll(excludes);
+        List<Presentation> presentations = corpus.getAll(excludes);
         no = new LanguageData("no", noStopWords, presentations);
         en = new LanguageData("en", enStopWords, presentations);
     }
 
+    /**
+     * Trains a model for every language and combination of alpha, beta and number of topics, as many
+     * at a time as the thread budget allows. Every finished model adds a row to stats_&lt;language&gt;.txt,
+     * so the rows are in order of completion.
+     */
     public void run() {
+        run(Arrays.asList(no, en), numberOfTopics, alphaValues, betaValues);
+    }
+
+    /**
+     * The models of one language, number of topics and alpha are trained one after another, in the
+     * order of <code>betas</code>, so every beta can warm start from the one before it, see
+     * {@link #findTopics(LanguageData, int, double, double, Double)}. A failing model stops the models
+     * after it in its group.
+     */
+    void run(List<LanguageData> languageDataList, List<Integer> topicCounts, List<Double> alphas, List<Double> betas) {
+        List<SweepConfiguration> configurations = new ArrayList<>();
+        Map<LanguageData, PrintWriter> statsFiles = new HashMap<>();
         try {
-            List<LanguageData> languageDataList = Arrays.asList(no, en);//, no);
             for (LanguageData languageData : languageDataList) {
-                StringBuilder fileContent = new StringBuilder();
-                fileContent
-                        .append("alpha").append(",")
+                PrintWriter statsFile = new PrintWriter(new BufferedWriter(new FileWriter(new File(outputDirectory, String.format("stats_%s.txt", languageData.code)))));
+                statsFiles.put(languageData, statsFile);
+                statsFile.append("alpha").append(",")
                         .append("beta").append(",")
                         .append("topics").append(",")
                         .append("logLikelihood").append(",")
-                        .append("perplexity").append("\n");
-                for (Double alpha : alphaValues) {
-                    for (Double beta : betaValues) {
-                        for (int numTopics : numberOfTopics) {
-                            ParallelTopicModel model = findTopics(languageData, numTopics, alpha, beta);
-                            double logLikelihood = model.modelLogLikelihood();
-                            fileContent.append(String.valueOf(alpha)).append(",")
-                                    .append(String.valueOf(beta)).append(",");
-                            fileContent.append(numTopics).append(",")
-                                    .append(logLikelihood).append(",")
-                                    .append(getPerplexity(logLikelihood, model.totalTokens)).append("\n");
-                        }
+                        .append("perplexity").append(",")
+                        .append("iterations").append("\n");
+                statsFile.flush();
+                for (Double alpha : alphas) {
+                    for (int numTopics : topicCounts) {
+                        configurations.add(new SweepConfiguration(languageData, numTopics, alpha, betas));
                     }
                 }
-                writeToFile(String.format("stats_%s.txt", languageData.code), fileContent.toString());
             }
+
+            // preprocess every language once, before the models start sharing it
+            languageDataList.forEach(this::getInstances);
+            scheduler.run(configurations, SweepConfiguration::getCost, configuration -> {
+                List<ParallelTopicModel> models = new ArrayList<>();
+                Double previousBeta = null;
+                for (double beta : configuration.betas) {
+                    try {
+                        models.add(findTopics(configuration.languageData, configuration.numTopics, configuration.alpha, beta, previousBeta));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    previousBeta = beta;
+                }
+                return models;
+            }, (configuration, models) -> {
+                PrintWriter statsFile = statsFiles.get(configuration.languageData);
+                synchronized (statsFile) {
+                    for (int i = 0; i < models.size(); i++) {
+                        ParallelTopicModel model = models.get(i);
+                        double logLikelihood = model.modelLogLikelihood();
+                        statsFile.append(String.valueOf(configuration.alpha)).append(",")
+                                .append(String.valueOf(configuration.betas.get(i))).append(",");
+                        statsFile.append(String.valueOf(configuration.numTopics)).append(",")
+                                .append(String.valueOf(logLikelihood)).append(",")
+                                .append(String.valueOf(getPerplexity(logLikelihood, model.totalTokens))).append(",")
+                                .append(String.valueOf(model.numIterations)).append("\n");
+                    }
+                    statsFile.flush();
+                }
+            });
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            statsFiles.values().forEach(PrintWriter::close);
         }
     }
 
+    /**
+     * Optionally takes the number of threads the sweep may use, all cores by default.
+     */
     public static void main(String[] args) {
-        TopicModeling topicModeling = new TopicModeling(new DataProvider(), new TopicModelingStatistics());
+        int threadBudget = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        TopicModeling topicModeling = new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), threadBudget);
         topicModeling.run();
     }
 
-    private TokenSequenceRemoveStopwords stopWordsRemover(LanguageData languageData) {
-        List<String> stopWords = languageData.stopWords;
+    private static TokenSequenceRemoveStopwords stopWordsRemover(List<String> stopWords) {
         String[] stopWordsArray = stopWords.toArray(new String[stopWords.size()]);
         TokenSequenceRemoveStopwords stopWordsRemover = new TokenSequenceRemoveStopwords();
         stopWordsRemover.addStopWords(stopWordsArray);
         return stopWordsRemover;
     }
 
+    /**
+     * How every model of the sweep is trained, by default until the log likelihood improves by less
+     * than 0.1% per 50 iterations three times in a row, at most 2000 iterations.
+     */
+    public void setTrainer(ConvergenceTrainer trainer) {
+        this.trainer = trainer;
+    }
+
+    /**
+     * Where the stats and topic files are written, the working directory by default.
+     */
+    public void setOutputDirectory(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * The piped instances of a language, built once and shared read-only by every model of the sweep.
+     * With the system property {@value #INSTANCES_PROPERTY} set to a directory, they are also kept there
+     * between runs, keyed by the {@link LanguageData#getVersion() version} of the language.
+     */
+    InstanceList getInstances(LanguageData languageData) {
+        return instanceLists.computeIfAbsent(languageData, this::loadInstances);
+    }
+
+    private InstanceList loadInstances(LanguageData languageData) {
+        String directory = System.getProperty(INSTANCES_PROPERTY);
+        File file = directory == null ? null : new File(directory,
+                String.format("instances_%s_%s.mallet", languageData.code, languageData.getVersion()));
+        if (file != null && file.isFile()) {
+            return InstanceList.load(file);
+        }
+
+        InstanceList instances = createInstanceList(languageData);
+        Reader dataReader = new StringReader(languageData.document);
+        instances.addThruPipe(new CsvIterator(dataReader, Pattern.compile("^(\\S*)[\\s,]*(\\S*)[\\s,]*(.*)$"),
+                3, 2, 1)); // data, label, name fields
+        // the models only read the alphabet, nothing may add to it once it is shared
+        instances.getDataAlphabet().stopGrowth();
+
+        if (file != null) {
+            file.getParentFile().mkdirs();
+            instances.save(file);
+        }
+        return instances;
+    }
+
     private InstanceList createInstanceList(LanguageData languageData) {
+        return new InstanceList(createPipe(languageData.stopWords, new Alphabet()));
+    }
+
+    /**
+     * The preprocessing of the sweep, mapping words to features of <code>alphabet</code>.
+     */
+    static SerialPipes createPipe(List<String> stopWords, Alphabet alphabet) {
         ArrayList<Pipe> pipeList = new ArrayList<>();
         // Pipes: lowercase, tokenize, remove stopwords, map to features
         pipeList.add(new CharSequenceLowercase());
-        pipeList.add(new CharSequence2TokenSequence(Pattern.compile("\\p{L}[\\p{L}\\p{P}]+\\p{L}")));
-        pipeList.add(stopWordsRemover(languageData));
-        pipeList.add(new TokenSequence2FeatureSequence());
+        pipeList.add(new CharSequence2TokenSequence(Pattern.compile(TOKEN_PATTERN)));
+        pipeList.add(stopWordsRemover(stopWords));
+        pipeList.add(new TokenSequence2FeatureSequence(alphabet));
 
-        return new InstanceList(new SerialPipes(pipeList));
+        return new SerialPipes(pipeList);
+    }
+
+    /**
+     * @return the stop words removed from documents in the language with this code, "no" or "en"
+     */
+    public static List<String> getStopWords(String languageCode) {
+        switch (languageCode) {
+            case "no":
+                return Collections.unmodifiableList(noStopWords);
+            case "en":
+                return Collections.unmodifiableList(enStopWords);
+            default:
+                throw new IllegalArgumentException("Unknown language " + languageCode);
+        }
     }
 
     public ParallelTopicModel findTopics(
@@ -107,36 +235,27 @@ public class TopicModeling {
             int numberOfTopics,
             double alpha,
             double beta) throws IOException {
-        String data = languageData.document;
+        return findTopics(languageData, numberOfTopics, alpha, beta, null);
+    }
+
+    /**
+     * @param warmStartBeta with checkpoints, a new model starts from the topic assignments of the finished
+     *                      model with this beta and otherwise the same configuration, if there is one
+     */
+    ParallelTopicModel findTopics(
+            LanguageData languageData,
+            int numberOfTopics,
+            double alpha,
+            double beta,
+            Double warmStartBeta) throws IOException {
         String filename = languageData.code + "_" + numberOfTopics + "_a" + alpha + "_b" + beta;
         filename = filename.replace(".", "_");
         filename += ".txt";
         StringBuilder fileContent = new StringBuilder();
-        InstanceList instances = createInstanceList(languageData);
-
-        Reader dataReader = new InputStreamReader(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
-        instances.addThruPipe(new CsvIterator(dataReader, Pattern.compile("^(\\S*)[\\s,]*(\\S*)[\\s,]*(.*)$"),
-                3, 2, 1)); // data, label, name fields
-
-        // Create a model with numberOfTopics topics
-        //  Note that the first parameter is passed as the sum over topics, while
-        //  the second is the parameter for a single dimension of the Dirichlet prior.
-        double alphaSum = alpha * numberOfTopics;
-        ParallelTopicModel model = new ParallelTopicModel(numberOfTopics, alphaSum, beta);
-
-        model.addInstances(instances);
-
-        // Use two parallel samplers, which each look at one half the corpus and combine
-        //  statistics after every iteration.
-        model.setNumThreads(2);
-
-        // Run the model for 50 iterations and stop (this is for testing only,
-        //  for real applications, use 1000 to 2000 iterations)
-        model.setNumIterations(2000);
-        model.estimate();
+        ParallelTopicModel model = trainModel(languageData, numberOfTopics, alpha, beta, warmStartBeta);
 
         // The data alphabet maps word IDs to strings
-        Alphabet dataAlphabet = instances.getDataAlphabet();
+        Alphabet dataAlphabet = model.getAlphabet();
 
         // Get an array of sorted sets of word ID/count pairs
         ArrayList<TreeSet<IDSorter>> topicSortedWords = model.getSortedWords();
@@ -168,8 +287,72 @@ public class TopicModeling {
         return model;
     }
 
+    /**
+     * Trains the model of one configuration. With the system property
+     * {@value TopicCheckpoints#DIRECTORY_PROPERTY} set, a finished model is loaded instead of trained, an
+     * interrupted one continues from its last checkpoint, and a new one starts from the topic assignments
+     * of the finished run with <code>warmStartBeta</code>, if there is one.
+     */
+    private ParallelTopicModel trainModel(LanguageData languageData, int numberOfTopics, double alpha, double beta,
+                                          Double warmStartBeta) throws IOException {
+        TopicCheckpoints checkpoints = TopicCheckpoints.configured();
+        String name = modelName(languageData, numberOfTopics, alpha, beta);
+        ParallelTopicModel model = null;
+        if (checkpoints != null) {
+            model = checkpoints.loadFinished(name);
+            if (model != null) {
+                return model;
+            }
+            model = checkpoints.loadCheckpoint(name);
+        }
+
+        int completedIterations = 0;
+        if (model != null) {
+            completedIterations = model.numIterations;
+        } else {
+            // Create a model with numberOfTopics topics
+            //  Note that the first parameter is passed as the sum over topics, while
+            //  the second is the parameter for a single dimension of the Dirichlet prior.
+            double alphaSum = alpha * numberOfTopics;
+            model = new ParallelTopicModel(numberOfTopics, alphaSum, beta);
+
+            model.addInstances(getInstances(languageData));
+
+            File warmStart = checkpoints == null || warmStartBeta == null ? null
+                    : checkpoints.getState(modelName(languageData, numberOfTopics, alpha, warmStartBeta));
+            if (warmStart != null) {
+                model.initializeFromState(warmStart);
+                warmStarts.put(name, warmStart.getName());
+            }
+        }
+
+        // Use two parallel samplers, which each look at one half the corpus and combine
+        //  statistics after every iteration.
+        model.setNumThreads(threadsPerModel);
+
+        // Run the model for up to 2000 iterations, fewer once the log likelihood has converged
+        trainer.train(model, completedIterations, checkpoints == null ? null : checkpoints.checkpoint(name));
+
+        if (checkpoints != null) {
+            checkpoints.finish(name, model);
+        }
+        return model;
+    }
+
+    private static String modelName(LanguageData languageData, int numberOfTopics, double alpha, double beta) {
+        return String.format("%s_%d_a%s_b%s_", languageData.code, numberOfTopics, alpha, beta).replace(".", "_")
+                + languageData.getVersion();
+    }
+
+    /**
+     * @return the state file every warm started model of this instance started from, by model name
+     */
+    Map<String, String> getWarmStarts() {
+        return warmStarts;
+    }
+
     private void writeToFile(String filename, String content) {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(new File(filename)))) {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(new File(outputDirectory, filename)))) {
             bw.write(content);
             bw.close();
         } catch (IOException e) {
@@ -181,16 +364,66 @@ public class TopicModeling {
         return Math.exp(-logLikelihood / totalTokens);
     }
 
+    /**
+     * The models of the sweep for one language, number of topics and alpha, one per beta.
+     */
+    private static class SweepConfiguration {
+        private final LanguageData languageData;
+        private final int numTopics;
+        private final double alpha;
+        private final List<Double> betas;
+
+        SweepConfiguration(LanguageData languageData, int numTopics, double alpha, List<Double> betas) {
+            this.languageData = languageData;
+            this.numTopics = numTopics;
+            this.alpha = alpha;
+            this.betas = betas;
+        }
+
+        /**
+         * Sampling time grows with the number of tokens times the number of topics, for every beta.
+         */
+        long getCost() {
+            return (long) numTopics * languageData.document.length() * betas.size();
+        }
+
+        @Override
+        public String toString() {
+            return languageData.code + " topics=" + numTopics + " alpha=" + alpha + " betas=" + betas;
+        }
+    }
+
     public static class LanguageData {
         private final String code;
         private final List<String> stopWords;
         private String document;
+        private final String version;
         private Map<String, Presentation> presentationMap = new HashMap<>();
 
         public LanguageData(String code, List<String> stopWords, List<Presentation> presentations) {
             this.code = code;
             this.stopWords = stopWords;
             document = createDocument(presentations, code);
+            version = createVersion();
+        }
+
+        /**
+         * A digest of everything the instances of the language are built from: the document, the stop
+         * words and the token pattern. The first 16 hex digits of their SHA-256.
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        private String createVersion() {
+            Hasher hasher = Hashing.sha256().newHasher();
+            hasher.putInt(TOKEN_PATTERN.length()).putString(TOKEN_PATTERN, StandardCharsets.UTF_8);
+            hasher.putInt(stopWords.size());
+            for (String stopWord : stopWords) {
+                hasher.putInt(stopWord.length()).putString(stopWord, StandardCharsets.UTF_8);
+            }
+            hasher.putString(document, StandardCharsets.UTF_8);
+            return hasher.hash().toString().substring(0, 16);
         }
 
         private String createDocument(List<Presentation> presentations, String code) {
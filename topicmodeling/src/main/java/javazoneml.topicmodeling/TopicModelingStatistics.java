@@ -7,9 +7,12 @@ import javazoneml.model.Presentation;
 
 import java.io.PrintWriter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class TopicModelingStatistics {
+    private static final int TOP_DISTANCES = 100;
+    private static final int BLOCK_SIZE = 64;
+    private static final double HELLINGER_SCALE = 1 / Math.sqrt(2);
 
     public void printGroupedTopicDistributions(ParallelTopicModel model, TopicModeling.LanguageData languageData, PrintWriter out) {
         ArrayList<TopicAssignment> data = model.getData();
@@ -88,60 +91,83 @@ public class TopicModelingStatistics {
         }
     }
 
+    /**
+     * Prints the {@value #TOP_DISTANCES} closest pairs of documents by the Hellinger and by the
+     * Euclidean distance of their topic distributions.
+     */
     public void printTopicDistances(ParallelTopicModel model, PrintWriter out) {
-        List<Distance> distances = calculateDistances(model);
-        printDistanceType(
-                out,
-                distances,
-                DistanceType.HELLINGER);
-        printDistanceType(
-                out,
-                distances,
-                DistanceType.EUCLIDEAN);
+        TopPairs[] smallest = smallestDistances(model.getDocumentTopics(true, true), TOP_DISTANCES);
+        printDistanceType(out, smallest[DistanceType.HELLINGER.ordinal()], DistanceType.HELLINGER);
+        printDistanceType(out, smallest[DistanceType.EUCLIDEAN.ordinal()], DistanceType.EUCLIDEAN);
     }
 
-    private void printDistanceType(PrintWriter out, List<Distance> distances, DistanceType type) {
-        List<Distance> sorted = distances.stream()
-                .filter(d -> d.type.equals(type))
-                .sorted((d1, d2) -> Double.compare(d1.distance, d2.distance))
-                .limit(100)
-                .collect(Collectors.toList());
-        out.println(String.format("100 smallest %s distances between topics", type.name));
-        for (Distance distance : sorted) {
-            out.println(distance.first + "\t" + distance.second + "\t" + distance.distance);
+    private void printDistanceType(PrintWriter out, TopPairs pairs, DistanceType type) {
+        out.println(String.format("%d smallest %s distances between topics", TOP_DISTANCES, type.name));
+        for (int pair : pairs.sorted()) {
+            out.println(pairs.first[pair] + "\t" + pairs.second[pair] + "\t" + pairs.distances[pair]);
         }
     }
 
-    private List<Distance> calculateDistances(ParallelTopicModel model) {
-        List<Distance> distances = new ArrayList<>();
-        double[][] documentTopics = model.getDocumentTopics(true, true);
-        for (int i = 0; i < documentTopics.length; i++) {
-            for (int j = i + 1; j < documentTopics.length; j++) {
-                double[] iTopics = documentTopics[i];
-                double[] jTopics = documentTopics[j];
-                distances.add(new Distance(i, j, DistanceType.EUCLIDEAN, euclideanDistance(iTopics, jTopics)));
-                distances.add(new Distance(i, j, DistanceType.HELLINGER, hellingerDistance(iTopics, jTopics)));
+    /**
+     * The <code>k</code> smallest distances between any two documents, indexed by {@link DistanceType}
+     * ordinal. Ties are broken by document indexes, as in a stable sort of all pairs.
+     * <p>
+     * The distributions are copied into one flat array, next to their square roots for the Hellinger
+     * distance. Blocks of rows are compared in parallel, each into its own bounded heaps, which are
+     * merged at the end, so memory stays linear in the number of documents.
+     */
+    TopPairs[] smallestDistances(double[][] documentTopics, int k) {
+        int documents = documentTopics.length;
+        int topics = documents == 0 ? 0 : documentTopics[0].length;
+        double[] values = new double[documents * topics];
+        double[] roots = new double[documents * topics];
+        for (int i = 0; i < documents; i++) {
+            for (int t = 0; t < topics; t++) {
+                values[i * topics + t] = documentTopics[i][t];
+                roots[i * topics + t] = Math.sqrt(documentTopics[i][t]);
             }
         }
 
-        return distances;
+        int blocks = (documents + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return IntStream.range(0, blocks).parallel().mapToObj(block -> {
+            TopPairs[] smallest = {new TopPairs(k), new TopPairs(k)};
+            TopPairs hellinger = smallest[DistanceType.HELLINGER.ordinal()];
+            TopPairs euclidean = smallest[DistanceType.EUCLIDEAN.ordinal()];
+            int end = Math.min(documents, (block + 1) * BLOCK_SIZE);
+            for (int i = block * BLOCK_SIZE; i < end; i++) {
+                for (int j = i + 1; j < documents; j++) {
+                    euclidean.offer(Math.sqrt(squaredDistance(values, i * topics, values, j * topics, topics)), i, j);
+                    hellinger.offer(HELLINGER_SCALE * Math.sqrt(squaredDistance(roots, i * topics, roots, j * topics, topics)), i, j);
+                }
+            }
+            return smallest;
+        }).reduce((a, b) -> {
+            a[0].merge(b[0]);
+            a[1].merge(b[1]);
+            return a;
+        }).orElseGet(() -> new TopPairs[]{new TopPairs(k), new TopPairs(k)});
     }
 
     protected double euclideanDistance(double[] x, double[] y) {
         if (x == null || y == null || x.length != y.length) {
             throw new IllegalArgumentException();
         }
-        double squares = 0.0;
-        for (int i = 0; i < x.length; i++) {
-            squares += Math.pow(x[i] - y[i], 2);
-        }
-        return Math.sqrt(squares);
+        return Math.sqrt(squaredDistance(x, 0, y, 0, x.length));
     }
 
     protected double hellingerDistance(double[] x, double[] y) {
         double[] sqrtX = Arrays.stream(x).map(Math::sqrt).toArray();
         double[] sqrtY = Arrays.stream(y).map(Math::sqrt).toArray();
-        return 1 / Math.sqrt(2) * euclideanDistance(sqrtX, sqrtY);
+        return HELLINGER_SCALE * euclideanDistance(sqrtX, sqrtY);
+    }
+
+    private static double squaredDistance(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        double squares = 0.0;
+        for (int i = 0; i < length; i++) {
+            double d = x[xOffset + i] - y[yOffset + i];
+            squares += d * d;
+        }
+        return squares;
     }
 
     private enum DistanceType {
@@ -155,16 +181,103 @@ public class TopicModelingStatistics {
         }
     }
 
-    private static class Distance {
-        int first, second;
-        double distance;
-        DistanceType type;
+    /**
+     * The <code>capacity</code> smallest distances offered, with the pairs of documents they are
+     * between, in a max-heap over primitive arrays: a new distance only has to beat the largest one kept.
+     */
+    static class TopPairs {
+        private final int capacity;
+        final double[] distances;
+        final int[] first;
+        final int[] second;
+        private int size;
+
+        TopPairs(int capacity) {
+            this.capacity = capacity;
+            this.distances = new double[capacity];
+            this.first = new int[capacity];
+            this.second = new int[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void offer(double distance, int i, int j) {
+            if (size < capacity) {
+                distances[size] = distance;
+                first[size] = i;
+                second[size] = j;
+                siftUp(size++);
+            } else if (capacity > 0 && before(distance, i, j, 0)) {
+                distances[0] = distance;
+                first[0] = i;
+                second[0] = j;
+                siftDown(0);
+            }
+        }
+
+        void merge(TopPairs other) {
+            for (int pair = 0; pair < other.size; pair++) {
+                offer(other.distances[pair], other.first[pair], other.second[pair]);
+            }
+        }
+
+        /**
+         * @return the heap positions of the pairs, smallest distance first
+         */
+        int[] sorted() {
+            return IntStream.range(0, size).boxed()
+                    .sorted((a, b) -> before(distances[a], first[a], second[a], b) ? -1 : a.equals(b) ? 0 : 1)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private boolean before(double distance, int i, int j, int pair) {
+            int compare = Double.compare(distance, distances[pair]);
+            if (compare == 0) {
+                compare = i != first[pair] ? Integer.compare(i, first[pair]) : Integer.compare(j, second[pair]);
+            }
+            return compare < 0;
+        }
+
+        private void siftUp(int pair) {
+            while (pair > 0) {
+                int parent = (pair - 1) / 2;
+                if (!before(distances[parent], first[parent], second[parent], pair)) {
+                    return;
+                }
+                swap(pair, parent);
+                pair = parent;
+            }
+        }
+
+        private void siftDown(int pair) {
+            while (true) {
+                int largest = pair;
+                for (int child = 2 * pair + 1; child <= 2 * pair + 2 && child < size; child++) {
+                    if (before(distances[largest], first[largest], second[largest], child)) {
+                        largest = child;
+                    }
+                }
+                if (largest == pair) {
+                    return;
+                }
+                swap(pair, largest);
+                pair = largest;
+            }
+        }
 
-        public Distance(int first, int second, DistanceType type, double distance) {
-            this.first = first;
-            this.second = second;
-            this.type = type;
-            this.distance = distance;
+        private void swap(int a, int b) {
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+            int i = first[a];
+            first[a] = first[b];
+            first[b] = i;
+            int j = second[a];
+            second[a] = second[b];
+            second[b] = j;
         }
     }
 }
@@ -0,0 +1,56 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.topics.ParallelTopicModel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ConvergenceTrainerTest {
+
+    @Test
+    public void testStopsWhenStalled() throws IOException {
+        ParallelTopicModel model = TopicModelFixtures.model(0.01);
+        // any improvement below 50% stalls, so training stops at the second check
+        int iterations = new ConvergenceTrainer(200, 10, 0.5, 1).train(model);
+        Assert.assertEquals(20, iterations);
+        Assert.assertEquals(20, model.numIterations);
+    }
+
+    @Test
+    public void testFixed() throws IOException {
+        ParallelTopicModel model = TopicModelFixtures.model(0.01);
+        Assert.assertEquals(30, ConvergenceTrainer.fixed(30).train(model));
+        Assert.assertEquals(30, model.numIterations);
+    }
+
+    @Test
+    public void testOptimizesHyperparameters() throws IOException {
+        ParallelTopicModel model = TopicModelFixtures.model(0.01);
+        model.setBurninPeriod(20);
+        model.setOptimizeInterval(10);
+        double alphaSum = model.alphaSum;
+        double beta = model.beta;
+        new ConvergenceTrainer(60, 10, Double.NEGATIVE_INFINITY, 1).train(model);
+        Assert.assertNotEquals(alphaSum, model.alphaSum, 0.0);
+        Assert.assertNotEquals(beta, model.beta, 0.0);
+        Assert.assertEquals(20, model.burninPeriod);
+    }
+
+    @Test
+    public void testNoOptimizationDuringBurnin() throws IOException {
+        ParallelTopicModel model = TopicModelFixtures.model(0.01);
+        model.setBurninPeriod(100);
+        model.setOptimizeInterval(10);
+        double alphaSum = model.alphaSum;
+        new ConvergenceTrainer(60, 10, Double.NEGATIVE_INFINITY, 1).train(model);
+        Assert.assertEquals(alphaSum, model.alphaSum, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunksMustLineUpWithOptimization() throws IOException {
+        ParallelTopicModel model = TopicModelFixtures.model(0.01);
+        model.setOptimizeInterval(50);
+        new ConvergenceTrainer(200, 30, 0.5, 1).train(model);
+    }
+}
@@ -0,0 +1,59 @@
+package javazoneml.topicmodeling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SweepSchedulerTest {
+
+    @Test
+    public void testMostExpensiveFirst() {
+        SweepScheduler scheduler = new SweepScheduler(2, 2);
+        Assert.assertEquals(1, scheduler.getConcurrency());
+        List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+        scheduler.run(Arrays.asList(10, 100, 50, 20), c -> c, c -> c, (c, r) -> completed.add(r));
+        Assert.assertEquals(Arrays.asList(100, 50, 20, 10), completed);
+    }
+
+    @Test
+    public void testConcurrencyWithinBudget() {
+        SweepScheduler scheduler = new SweepScheduler(8, 2);
+        Assert.assertEquals(4, scheduler.getConcurrency());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        List<Integer> configurations = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            configurations.add(i);
+        }
+        scheduler.run(configurations, c -> c, c -> {
+            maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return c;
+        }, (c, r) -> { });
+        Assert.assertTrue(maximum.get() <= 4);
+        Assert.assertTrue(maximum.get() > 1);
+    }
+
+    @Test
+    public void testFailureDoesNotStopSweep() {
+        List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+        new SweepScheduler(4, 1).run(Arrays.asList(1, 2, 3), c -> c, c -> {
+            if (c == 2) {
+                throw new IllegalStateException("failed");
+            }
+            return c;
+        }, (c, r) -> completed.add(r));
+        Collections.sort(completed);
+        Assert.assertEquals(Arrays.asList(1, 3), completed);
+    }
+}
@@ -0,0 +1,61 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.topics.ParallelTopicModel;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class TopicCheckpointsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testResumeFromCheckpoint() throws IOException {
+        TopicCheckpoints checkpoints = new TopicCheckpoints(folder.getRoot(), 10);
+        ParallelTopicModel model = TopicModelFixtures.model(0.01);
+        model.setBurninPeriod(0);
+        double alphaSum = model.alphaSum;
+        ConvergenceTrainer.fixed(10).train(model, 0, checkpoints.checkpoint("en_2"));
+        Assert.assertNull(checkpoints.loadFinished("en_2"));
+
+        ParallelTopicModel resumed = checkpoints.loadCheckpoint("en_2");
+        Assert.assertNotNull(resumed);
+        Assert.assertEquals(10, resumed.numIterations);
+        // the hyperparameters optimized before the checkpoint
+        Assert.assertNotEquals(alphaSum, resumed.alphaSum, 0.0);
+        Assert.assertEquals(model.alphaSum, resumed.alphaSum, 0.0);
+        Assert.assertEquals(model.beta, resumed.beta, 0.0);
+        Assert.assertEquals(model.totalTokens, resumed.totalTokens);
+        resumed.setNumThreads(1);
+        double resumedAlphaSum = resumed.alphaSum;
+        Assert.assertEquals(30, ConvergenceTrainer.fixed(30).train(resumed, resumed.numIterations, checkpoints.checkpoint("en_2")));
+        Assert.assertNotEquals(resumedAlphaSum, resumed.alphaSum, 0.0);
+
+        checkpoints.finish("en_2", resumed);
+        Assert.assertNull(checkpoints.loadCheckpoint("en_2"));
+        ParallelTopicModel finished = checkpoints.loadFinished("en_2");
+        Assert.assertEquals(30, finished.numIterations);
+        Assert.assertEquals(resumed.modelLogLikelihood(), finished.modelLogLikelihood(), 1e-9);
+    }
+
+    @Test
+    public void testWarmStart() throws IOException {
+        TopicCheckpoints checkpoints = new TopicCheckpoints(folder.getRoot(), 10);
+        ParallelTopicModel model = TopicModelFixtures.model(0.01);
+        ConvergenceTrainer.fixed(20).train(model);
+        checkpoints.finish("en_2_b0_01_v", model);
+        Assert.assertNull(checkpoints.getState("en_2_b0_05_v"));
+
+        File state = checkpoints.getState("en_2_b0_01_v");
+        Assert.assertEquals("en_2_b0_01_v.state.gz", state.getName());
+        ParallelTopicModel warm = TopicModelFixtures.model(0.05);
+        warm.initializeFromState(state);
+        for (int topic = 0; topic < 2; topic++) {
+            Assert.assertEquals(model.getSortedWords().get(topic).size(), warm.getSortedWords().get(topic).size());
+        }
+    }
+}
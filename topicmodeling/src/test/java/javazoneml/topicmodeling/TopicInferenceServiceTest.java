@@ -0,0 +1,60 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.topics.ParallelTopicModel;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TopicInferenceServiceTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testInferTopics() {
+        ParallelTopicModel model = TopicModelFixtures.trainedModel(0.01, 20);
+        int words = model.getAlphabet().size();
+        TopicInferenceService service = new TopicInferenceService(model, TopicModelFixtures.STOP_WORDS);
+
+        double[] topics = service.inferTopics("Parallel streams and collectors in Java, unseen words");
+        Assert.assertEquals(2, topics.length);
+        Assert.assertEquals(1.0, topics[0] + topics[1], 1e-9);
+        Assert.assertEquals(words, model.getAlphabet().size());
+    }
+
+    @Test
+    public void testBatchKeepsOrder() {
+        TopicInferenceService service = new TopicInferenceService(TopicModelFixtures.trainedModel(0.01, 20), TopicModelFixtures.STOP_WORDS);
+        List<String> texts = Collections.nCopies(20, "Kotlin coroutines");
+        List<double[]> topics = service.inferTopics(texts);
+        Assert.assertEquals(20, topics.size());
+        for (double[] distribution : topics) {
+            Assert.assertArrayEquals(topics.get(0), distribution, 0.0);
+        }
+    }
+
+    @Test
+    public void testReproducible() {
+        TopicInferenceService service = new TopicInferenceService(TopicModelFixtures.trainedModel(0.01, 20), TopicModelFixtures.STOP_WORDS);
+        double[] first = service.inferTopics("Java streams and Kotlin coroutines");
+        service.inferTopics("Parallel collectors");
+        Assert.assertArrayEquals(first, service.inferTopics("Java streams and Kotlin coroutines"), 0.0);
+        Assert.assertArrayEquals(first, service.inferTopics(Arrays.asList("Kotlin", "Java streams and Kotlin coroutines")).get(1), 0.0);
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        ParallelTopicModel model = TopicModelFixtures.trainedModel(0.01, 20);
+        File file = folder.newFile("en.model");
+        model.write(file);
+        TopicInferenceService service = TopicInferenceService.load(file, TopicModelFixtures.STOP_WORDS);
+        Assert.assertEquals(2, service.getNumTopics());
+        Assert.assertEquals(2, service.inferTopics("Java streams").length);
+    }
+}
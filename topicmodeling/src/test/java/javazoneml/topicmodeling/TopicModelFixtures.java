@@ -0,0 +1,65 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.topics.ParallelTopicModel;
+import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A two talk English corpus and small models over it, shared by the topic modeling tests.
+ */
+final class TopicModelFixtures {
+    static final List<String> STOP_WORDS = Arrays.asList("in", "and", "for");
+
+    private TopicModelFixtures() {
+    }
+
+    static List<Presentation> presentations() {
+        return Arrays.asList(
+                presentation("Streams", "Java streams in production, collectors and parallel streams"),
+                presentation("Kotlin", "Kotlin coroutines for Java developers"));
+    }
+
+    static TopicModeling.LanguageData languageData() {
+        return new TopicModeling.LanguageData("en", STOP_WORDS, presentations());
+    }
+
+    static TopicModeling topicModeling() {
+        return new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), 2);
+    }
+
+    /**
+     * An untrained model with two topics, sampled by one thread, optimizing its hyperparameters every
+     * 10 iterations after the burn-in, so it can be trained in chunks of 10.
+     */
+    static ParallelTopicModel model(double beta) {
+        ParallelTopicModel model = new ParallelTopicModel(2, 1.0, beta);
+        model.addInstances(topicModeling().getInstances(languageData()));
+        model.setNumThreads(1);
+        model.setOptimizeInterval(10);
+        return model;
+    }
+
+    static ParallelTopicModel trainedModel(double beta, int iterations) {
+        ParallelTopicModel model = model(beta);
+        try {
+            ConvergenceTrainer.fixed(iterations).train(model);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return model;
+    }
+
+    static Presentation presentation(String title, String description) {
+        Presentation presentation = new Presentation();
+        presentation.setTitle(title);
+        presentation.setDescription(description);
+        presentation.setLanguage("en");
+        presentation.setYear(2016);
+        return presentation;
+    }
+}
@@ -4,6 +4,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
 public class TopicModelingStatisticsTest {
     private TopicModelingStatistics topicModelingStatistics;
 
@@ -41,4 +46,54 @@ public class TopicModelingStatisticsTest {
         double distance = topicModelingStatistics.hellingerDistance(x, y);
         Assert.assertEquals(5.0/Math.sqrt(2.0), distance, 0.0001);
     }
+
+    @Test
+    public void smallestDistancesMatchAllPairs(){
+        Random random = new Random(7);
+        double[][] documentTopics = new double[300][7];
+        for (int i = 0; i < documentTopics.length; i++) {
+            double sum = 0;
+            for (int t = 0; t < 7; t++) {
+                documentTopics[i][t] = random.nextInt(4);
+                sum += documentTopics[i][t];
+            }
+            for (int t = 0; t < 7; t++) {
+                documentTopics[i][t] = sum == 0 ? 1.0 / 7 : documentTopics[i][t] / sum;
+            }
+        }
+
+        TopicModelingStatistics.TopPairs[] smallest = topicModelingStatistics.smallestDistances(documentTopics, 50);
+        assertSmallest(documentTopics, smallest[0], true);
+        assertSmallest(documentTopics, smallest[1], false);
+    }
+
+    @Test
+    public void smallestDistancesFewDocuments(){
+        double[][] documentTopics = {{0.5, 0.5}, {1.0, 0.0}};
+        TopicModelingStatistics.TopPairs[] smallest = topicModelingStatistics.smallestDistances(documentTopics, 100);
+        Assert.assertEquals(1, smallest[0].size());
+        Assert.assertEquals(0, topicModelingStatistics.smallestDistances(new double[0][], 100)[1].size());
+    }
+
+    private void assertSmallest(double[][] documentTopics, TopicModelingStatistics.TopPairs pairs, boolean hellinger){
+        // every pair in order, stably sorted, the way the distances used to be ranked
+        List<double[]> all = new ArrayList<>();
+        for (int i = 0; i < documentTopics.length; i++) {
+            for (int j = i + 1; j < documentTopics.length; j++) {
+                double distance = hellinger
+                        ? topicModelingStatistics.hellingerDistance(documentTopics[i], documentTopics[j])
+                        : topicModelingStatistics.euclideanDistance(documentTopics[i], documentTopics[j]);
+                all.add(new double[]{i, j, distance});
+            }
+        }
+        all.sort(Comparator.comparingDouble(d -> d[2]));
+
+        int[] sorted = pairs.sorted();
+        Assert.assertEquals(50, sorted.length);
+        for (int n = 0; n < sorted.length; n++) {
+            Assert.assertEquals((int) all.get(n)[0], pairs.first[sorted[n]]);
+            Assert.assertEquals((int) all.get(n)[1], pairs.second[sorted[n]]);
+            Assert.assertEquals(all.get(n)[2], pairs.distances[sorted[n]], 0.0);
+        }
+    }
 }
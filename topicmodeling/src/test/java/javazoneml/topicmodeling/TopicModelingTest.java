@@ -0,0 +1,105 @@
+package javazoneml.topicmodeling;
+
+import cc.mallet.types.InstanceList;
+import javazoneml.model.Presentation;
+import javazoneml.tools.data.CorpusSnapshot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TopicModelingTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Presentation> presentations = Arrays.asList(
+            presentation("Streams", "Java streams in production, collectors and parallel streams"),
+            presentation("Kotlin", "Kotlin coroutines for Java developers"));
+
+    @After
+    public void tearDown() {
+        System.clearProperty(TopicModeling.INSTANCES_PROPERTY);
+        System.clearProperty(TopicCheckpoints.DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    public void testInstancesBuiltOnce() {
+        TopicModeling topicModeling = new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), 2);
+        TopicModeling.LanguageData languageData = new TopicModeling.LanguageData("en", Arrays.asList("in", "and", "for"), presentations);
+
+        InstanceList instances = topicModeling.getInstances(languageData);
+        Assert.assertSame(instances, topicModeling.getInstances(languageData));
+        Assert.assertEquals(2, instances.size());
+        Assert.assertTrue(instances.getDataAlphabet().growthStopped());
+        Assert.assertFalse(instances.getDataAlphabet().contains("and"));
+        Assert.assertTrue(instances.getDataAlphabet().contains("coroutines"));
+    }
+
+    @Test
+    public void testInstancesKeptBetweenRuns() {
+        System.setProperty(TopicModeling.INSTANCES_PROPERTY, folder.getRoot().getPath());
+        TopicModeling.LanguageData languageData = new TopicModeling.LanguageData("en", Arrays.asList("in", "and", "for"), presentations);
+
+        InstanceList built = new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), 2).getInstances(languageData);
+        Assert.assertEquals(1, folder.getRoot().listFiles().length);
+        InstanceList loaded = new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), 2).getInstances(languageData);
+
+        Assert.assertNotSame(built, loaded);
+        Assert.assertEquals(built.size(), loaded.size());
+        Assert.assertEquals(built.getDataAlphabet().size(), loaded.getDataAlphabet().size());
+    }
+
+    @Test
+    public void testStopWordsChangeVersion() {
+        System.setProperty(TopicModeling.INSTANCES_PROPERTY, folder.getRoot().getPath());
+        TopicModeling.LanguageData languageData = new TopicModeling.LanguageData("en", Arrays.asList("in", "and", "for"), presentations);
+        TopicModeling.LanguageData moreStopWords = new TopicModeling.LanguageData("en", Arrays.asList("in", "and", "for", "java"), presentations);
+        Assert.assertEquals(languageData.getVersion(), new TopicModeling.LanguageData("en", Arrays.asList("in", "and", "for"), presentations).getVersion());
+        Assert.assertNotEquals(languageData.getVersion(), moreStopWords.getVersion());
+
+        new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), 2).getInstances(languageData);
+        InstanceList instances = new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), 2).getInstances(moreStopWords);
+        Assert.assertEquals(2, folder.getRoot().listFiles().length);
+        Assert.assertFalse(instances.getDataAlphabet().contains("java"));
+    }
+
+    @Test
+    public void testSweepWarmStartsFromPreviousBeta() throws IOException {
+        TopicModeling.LanguageData languageData = new TopicModeling.LanguageData("en", Arrays.asList("in", "and", "for"), presentations);
+        Map<String, String> warmStarts = sweep(languageData, "first");
+        Assert.assertEquals(warmStarts, sweep(languageData, "second"));
+
+        String version = languageData.getVersion();
+        Assert.assertEquals(2, warmStarts.size());
+        Assert.assertEquals("en_2_a0_5_b0_05_" + version + ".state.gz", warmStarts.get("en_2_a0_5_b0_01_" + version));
+        Assert.assertEquals("en_3_a0_5_b0_05_" + version + ".state.gz", warmStarts.get("en_3_a0_5_b0_01_" + version));
+        Assert.assertTrue(new File(folder.getRoot(), "first/stats_en.txt").isFile());
+    }
+
+    private Map<String, String> sweep(TopicModeling.LanguageData languageData, String name) throws IOException {
+        File directory = folder.newFolder(name);
+        System.setProperty(TopicCheckpoints.DIRECTORY_PROPERTY, folder.newFolder(name + "_checkpoints").getPath());
+        TopicModeling topicModeling = new TopicModeling(CorpusSnapshot.getInstance(), new TopicModelingStatistics(), 4);
+        topicModeling.setTrainer(ConvergenceTrainer.fixed(10));
+        topicModeling.setOutputDirectory(directory);
+        topicModeling.run(Collections.singletonList(languageData), Arrays.asList(2, 3), Collections.singletonList(0.5), Arrays.asList(0.05, 0.01));
+        return topicModeling.getWarmStarts();
+    }
+
+    private Presentation presentation(String title, String description) {
+        Presentation presentation = new Presentation();
+        presentation.setTitle(title);
+        presentation.setDescription(description);
+        presentation.setLanguage("en");
+        presentation.setYear(2016);
+        return presentation;
+    }
+}